@@ -0,0 +1,62 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.engines.JmeterEnvironment;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.jmeter.assertions.AssertionResult;
+import org.apache.jmeter.assertions.ResponseAssertion;
+import org.apache.jmeter.samplers.SampleResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static us.abstracta.jmeter.javadsl.JmeterDsl.responseAssertion;
+
+// Response assertions on a 300 KB Portal page: the status code check every Portal sampler has, and a
+// body check for comparison
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AssertionBenchmark {
+
+  // a recorded Portal page instead of the synthetic one, see ResponseFixtures
+  @Param({""})
+  public String recordedPage;
+
+  private ResponseAssertion statusOk;
+  private ResponseAssertion bodyContains;
+  private byte[] body;
+
+  @Setup
+  public void setUp() throws Exception {
+    new JmeterEnvironment();
+    statusOk = PlanElements.build(PortalScenario.statusOk(), ResponseAssertion.class);
+    bodyContains = PlanElements.build(responseAssertion().containsSubstrings("javax.faces.ViewState"), ResponseAssertion.class);
+    body = ResponseFixtures.portalPage(recordedPage, 300);
+  }
+
+  @Benchmark
+  public AssertionResult statusOk() {
+    return statusOk.getResult(freshSample());
+  }
+
+  @Benchmark
+  public AssertionResult bodyContains() {
+    return bodyContains.getResult(freshSample());
+  }
+
+  private SampleResult freshSample() {
+    SampleResult sample = new SampleResult();
+    sample.setResponseCode("200");
+    sample.setResponseData(body);
+    sample.setDataEncoding(StandardCharsets.UTF_8.name());
+    return sample;
+  }
+}
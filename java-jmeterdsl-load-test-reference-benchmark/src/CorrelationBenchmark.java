@@ -0,0 +1,82 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.engines.JmeterEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.jmeter.extractor.RegexExtractor;
+import org.apache.jmeter.processor.PostProcessor;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static us.abstracta.jmeter.javadsl.JmeterDsl.regexExtractor;
+
+// Correlation of a Portal page: the regexExtractor chain PortalScenario used before vs. JsfCorrelation
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CorrelationBenchmark {
+
+  @Param({"50", "300"})
+  public int pageKb;
+
+  // a recorded Portal page instead of the synthetic ones, see ResponseFixtures
+  @Param({""})
+  public String recordedPage;
+
+  private List<RegexExtractor> regexExtractors;
+  private PostProcessor jsfCorrelation;
+  private SampleResult page;
+  private JMeterVariables variables;
+
+  @Setup
+  public void setUp() throws Exception {
+    new JmeterEnvironment();
+    regexExtractors = List.of(
+      PlanElements.build(regexExtractor("url", "action=\"([^\"]+)\""), RegexExtractor.class),
+      PlanElements.build(regexExtractor("viewState", "id=\"j_id__v_0:javax.faces.ViewState:1\" value=(\"[\\S]+\")"), RegexExtractor.class));
+    jsfCorrelation = PlanElements.build(JsfCorrelation.pageTokens(), PostProcessor.class);
+    byte[] body = ResponseFixtures.portalPage(recordedPage, pageKb);
+    page = new SampleResult();
+    page.setResponseData(body);
+    page.setDataEncoding(StandardCharsets.UTF_8.name());
+    variables = new JMeterVariables();
+    JMeterContextService.getContext().setVariables(variables);
+  }
+
+  @Benchmark
+  public void regexExtractors(Blackhole blackhole) {
+    // a new sample per request: the decoded body String is cached in the SampleResult
+    JMeterContextService.getContext().setPreviousResult(freshSample());
+    for (RegexExtractor extractor : regexExtractors) {
+      extractor.process();
+    }
+    blackhole.consume(variables.get("viewState"));
+  }
+
+  @Benchmark
+  public void jsfCorrelation(Blackhole blackhole) {
+    JMeterContextService.getContext().setPreviousResult(freshSample());
+    jsfCorrelation.process();
+    blackhole.consume(variables.get("viewState"));
+  }
+
+  private SampleResult freshSample() {
+    SampleResult sample = new SampleResult();
+    sample.setResponseData(page.getResponseData());
+    sample.setDataEncoding(page.getDataEncodingNoDefault());
+    return sample;
+  }
+}
@@ -0,0 +1,77 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.engines.JmeterEnvironment;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.jmeter.config.CSVDataSet;
+import org.apache.jmeter.processor.PreProcessor;
+import org.apache.jmeter.services.FileServer;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Credentials for a new iteration: the csvDataSet line read vs. taking a user from the UserPool.
+// Run with -t <threads> to see how both behave when many virtual users start iterations at once.
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataSetBenchmark {
+
+  private static final int USERS = 10_000;
+
+  private Path csvFile;
+  private UserPool userPool;
+
+  @State(Scope.Thread)
+  public static class VirtualUser {
+
+    private CSVDataSet csvCredentials;
+    private PreProcessor userPool;
+    private JMeterVariables variables;
+
+    @Setup
+    public void setUp(DataSetBenchmark benchmark) {
+      variables = new JMeterVariables();
+      JMeterContextService.getContext().setVariables(variables);
+      csvCredentials = PlanElements.build(PortalScenario.csvCredentials(benchmark.csvFile.toString()), CSVDataSet.class);
+      userPool = PlanElements.build(benchmark.userPool.preProcessor(), PreProcessor.class);
+    }
+  }
+
+  @Setup
+  public void setUp() throws Exception {
+    new JmeterEnvironment();
+    userPool = UserPool.generate("loadtest{0}", "secret{0}", USERS, UserPool.Mode.RECYCLE);
+    csvFile = Files.createTempFile("users", ".csv");
+    userPool.writeCsv(csvFile);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    FileServer.getFileServer().closeFiles();
+    Files.deleteIfExists(csvFile);
+  }
+
+  @Benchmark
+  public String csvDataSet(VirtualUser user) {
+    user.csvCredentials.iterationStart(null);
+    return user.variables.get(UserPool.USERNAME_VAR);
+  }
+
+  @Benchmark
+  public String userPool(VirtualUser user) {
+    user.variables.incIteration();
+    user.userPool.process();
+    return user.variables.get(UserPool.USERNAME_VAR);
+  }
+}
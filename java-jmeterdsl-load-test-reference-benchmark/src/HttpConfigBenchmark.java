@@ -0,0 +1,66 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.engines.JmeterEnvironment;
+import us.abstracta.jmeter.javadsl.http.DslCookieManager;
+import us.abstracta.jmeter.javadsl.http.HttpHeaders;
+
+import java.net.URI;
+import java.net.URL;
+
+import org.apache.http.client.methods.HttpPost;
+import org.apache.jmeter.protocol.http.control.CookieManager;
+import org.apache.jmeter.protocol.http.control.Header;
+import org.apache.jmeter.protocol.http.control.HeaderManager;
+import org.apache.jmeter.testelement.property.JMeterProperty;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Per request work of the session config PortalScenario shares across samplers: copying the browser headers
+// onto the request, and sending plus updating the session cookies
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HttpConfigBenchmark {
+
+  private HeaderManager headers;
+  private CookieManager cookies;
+  private URL url;
+
+  @Setup
+  public void setUp() throws Exception {
+    new JmeterEnvironment();
+    JMeterContextService.getContext().setVariables(new JMeterVariables());
+    Object[] sessionConfig = PortalScenario.sessionConfig("users.csv");
+    headers = PlanElements.build(PlanElements.find(sessionConfig, HttpHeaders.class), HeaderManager.class);
+    cookies = PlanElements.build(PlanElements.find(sessionConfig, DslCookieManager.class), CookieManager.class);
+    cookies.testStarted();
+    url = URI.create("http://localhost:8081/ivy/faces/pro/portal/1549F58C18A6C562/DefaultApplicationHomePage.xhtml").toURL();
+  }
+
+  @Benchmark
+  public HttpPost headers() {
+    // what the HttpClient 4 sampler does with the header manager on every request
+    HttpPost request = new HttpPost(url.toString());
+    for (JMeterProperty property : headers.getHeaders()) {
+      Header header = (Header) property.getObjectValue();
+      request.setHeader(header.getName(), header.getValue());
+    }
+    return request;
+  }
+
+  @Benchmark
+  public String cookies() {
+    String cookieHeader = cookies.getCookieHeaderForURL(url);
+    cookies.addCookieFromHeader("JSESSIONID=node0abc1def2ghi3jkl4mno5pqr.node0; Path=/ivy; HttpOnly", url);
+    cookies.addCookieFromHeader("XSRF-TOKEN=9f86d081884c7d659a2feaa0c55ad015; Path=/; SameSite=Strict", url);
+    return cookieHeader;
+  }
+}
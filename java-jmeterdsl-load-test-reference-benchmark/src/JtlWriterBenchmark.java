@@ -0,0 +1,89 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.engines.JmeterEnvironment;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.apache.jmeter.reporters.ResultCollector;
+import org.apache.jmeter.samplers.SampleEvent;
+import org.apache.jmeter.samplers.SampleResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static us.abstracta.jmeter.javadsl.JmeterDsl.jtlWriter;
+
+// Cost of writing one Portal sample to the CSV JTL with the jtlWriter settings PerformancePortalTest uses,
+// and to a BinaryJtl, where the sampler thread only queues the sample for the writer thread
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JtlWriterBenchmark {
+
+  private Path jtlDir;
+  private ResultCollector jtlWriter;
+  private BinaryJtl.Collector binaryWriter;
+  private URL url;
+
+  @Setup
+  public void setUp() throws Exception {
+    new JmeterEnvironment();
+    url = URI.create("http://localhost:8081/ivy/faces/pro/portal/TaskList.xhtml").toURL();
+  }
+
+  // A fresh file per iteration keeps the JTL from growing to gigabytes during the measurement
+  @Setup(Level.Iteration)
+  public void openJtl() throws IOException {
+    jtlDir = Files.createTempDirectory("jtls");
+    jtlWriter = PlanElements.build(jtlWriter(jtlDir.toString(), "benchmark.jtl"), ResultCollector.class);
+    jtlWriter.testStarted();
+    binaryWriter = PlanElements.build(BinaryJtl.writer(jtlDir.toString(), "benchmark.bjtl"), BinaryJtl.Collector.class);
+    binaryWriter.testStarted();
+  }
+
+  @TearDown(Level.Iteration)
+  public void closeJtl() throws IOException {
+    jtlWriter.testEnded();
+    binaryWriter.testEnded();
+    try (Stream<Path> files = Files.walk(jtlDir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+    }
+  }
+
+  // A new SampleResult per sample as in a real run, the collector does not write the same result twice
+  @Benchmark
+  public void writeSample() {
+    jtlWriter.sampleOccurred(portalSample());
+  }
+
+  @Benchmark
+  public void writeBinarySample() {
+    binaryWriter.sampleOccurred(portalSample());
+  }
+
+  private SampleEvent portalSample() {
+    SampleResult sample = SampleResult.createTestSample(1_700_000_000_000L, 1_700_000_000_245L);
+    sample.setSampleLabel("PortalTaskList");
+    sample.setResponseCode("200");
+    sample.setResponseMessage("OK");
+    sample.setSuccessful(true);
+    sample.setDataType(SampleResult.TEXT);
+    sample.setBytes(312_000L);
+    sample.setSentBytes(1_450L);
+    sample.setURL(url);
+    return new SampleEvent(sample, "Portal 1-1");
+  }
+}
@@ -0,0 +1,49 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.BuildTreeContext;
+import us.abstracta.jmeter.javadsl.core.DslTestPlan.TestPlanChild;
+
+import java.util.Arrays;
+
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.testbeans.TestBeanHelper;
+import org.apache.jmeter.testelement.TestElement;
+import org.apache.jmeter.testelement.ThreadListener;
+import org.apache.jorphan.collections.HashTree;
+import org.apache.jorphan.collections.SearchByClass;
+
+import static us.abstracta.jmeter.javadsl.JmeterDsl.testPlan;
+
+// Turns DSL elements into the JMeter test elements a running plan executes, so benchmarks measure
+// exactly what PortalScenario builds
+public class PlanElements {
+
+  // The element is built inside a test plan, as some DSL elements (e.g. httpCookies) are only added when the plan is complete
+  public static <T> T build(TestPlanChild element, Class<T> type) {
+    HashTree tree = new HashTree();
+    new BuildTreeContext().buildTreeFor(testPlan(element), tree);
+    SearchByClass<T> search = new SearchByClass<>(type);
+    tree.traverse(search);
+    T built = search.getSearchResults().stream()
+      .findFirst()
+      .orElseThrow(() -> new IllegalArgumentException(element + " does not build a " + type.getSimpleName()));
+    TestElement testElement = (TestElement) built;
+    if (testElement instanceof TestBean) {
+      TestBeanHelper.prepare(testElement);
+    }
+    testElement.setRunningVersion(true);
+    // lambda based jsr223 elements only get their script when the JMeter thread starts
+    if (testElement instanceof ThreadListener) {
+      ((ThreadListener) testElement).threadStarted();
+    }
+    return built;
+  }
+
+  public static <T> T find(Object[] elements, Class<T> type) {
+    return Arrays.stream(elements)
+      .filter(type::isInstance)
+      .map(type::cast)
+      .findFirst()
+      .orElseThrow(() -> new IllegalArgumentException("No " + type.getSimpleName() + " in " + Arrays.toString(elements)));
+  }
+}
@@ -0,0 +1,27 @@
+package com.axonivy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs the injector side benchmarks of the Portal plan elements, reporting ops/s and, through the GC
+// profiler, bytes allocated per operation (gc.alloc.rate.norm). Arguments are JMH command line options,
+// e.g. "Correlation -f 1" to run only the correlation benchmarks in a single fork.
+public class PortalBenchmarks {
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder()
+      .parent(new CommandLineOptions(args))
+      .mode(Mode.Throughput)
+      .timeUnit(TimeUnit.SECONDS)
+      .addProfiler(GCProfiler.class)
+      // same log4j setup as the demo tests, the default selector makes every jsr223 lambda call walk the stack
+      .jvmArgsAppend("-Dlog4j2.contextSelector=org.apache.logging.log4j.core.selector.BasicContextSelector")
+      .build())
+      .run();
+  }
+}
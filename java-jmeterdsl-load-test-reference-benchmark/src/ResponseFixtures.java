@@ -0,0 +1,21 @@
+package com.axonivy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Response bodies of the benchmarks. The suite ships synthetic PortalPages of realistic size, recorded Portal pages
+// hold customer data and live session tokens. Pass a page recorded from your own Portal with
+// -Dbenchmark.args="-p recordedPage=<file>" (e.g. saved by JMeter's "Save Responses to a file") to measure on it.
+final class ResponseFixtures {
+
+  private ResponseFixtures() {
+  }
+
+  static byte[] portalPage(String recordedPage, int kb) throws IOException {
+    if (!recordedPage.isEmpty()) {
+      return Files.readAllBytes(Path.of(recordedPage));
+    }
+    return PortalPages.bytes(PortalPages.page("Portal", "/ivy/faces/pro/portal/Home.xhtml", "-4411953394712368219:2178716585338466931", kb * 1024));
+  }
+}
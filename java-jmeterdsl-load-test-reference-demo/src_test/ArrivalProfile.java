@@ -0,0 +1,132 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.threadgroups.RpsThreadGroup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Open-model load shape: Portal sessions started per second, independent of how fast the Portal answers.
+// Profiles are declared in test.properties as "arrival.profile.<name>=<sessions/s>/<ramp up>/<hold>, ..."
+public class ArrivalProfile {
+
+  public static final String PROFILE_KEY = "arrival.profile";
+
+  // rpsThreadGroup starts its first ramp from one event per second
+  private static final double INITIAL_RATE = 1;
+
+  private final String name;
+  private final List<Stage> stages;
+
+  public record Stage(double rate, Duration rampUp, Duration holdFor) {
+  }
+
+  public ArrivalProfile(String name, List<Stage> stages) {
+    if (stages.isEmpty()) {
+      throw new IllegalArgumentException("Arrival profile " + name + " has no stages");
+    }
+    this.name = name;
+    this.stages = List.copyOf(stages);
+  }
+
+  // Profile selected by arrival.profile (or -Darrival.profile=<name>)
+  public static ArrivalProfile fromProperties(TestProperties properties) {
+    String name = properties.get(PROFILE_KEY);
+    return parse(name, properties.get(PROFILE_KEY + "." + name));
+  }
+
+  public static ArrivalProfile parse(String name, String spec) {
+    List<Stage> stages = new ArrayList<>();
+    for (String stage : spec.split(",")) {
+      String[] parts = stage.trim().split("/");
+      if (parts.length != 3) {
+        throw new IllegalArgumentException("Invalid stage '" + stage.trim() + "' in arrival profile " + name + ", expected <sessions/s>/<ramp up>/<hold>");
+      }
+      stages.add(new Stage(Double.parseDouble(parts[0].trim()), TestProperties.parseDuration(parts[1]), TestProperties.parseDuration(parts[2])));
+    }
+    return new ArrivalProfile(name, stages);
+  }
+
+  // Share of each of the given distributed workers, which all run the same thread group
+  public ArrivalProfile perWorker(int workers) {
+    if (workers <= 1) {
+      return this;
+    }
+    List<Stage> shares = new ArrayList<>();
+    for (Stage stage : stages) {
+      shares.add(new Stage(stage.rate() / workers, stage.rampUp(), stage.holdFor()));
+    }
+    return new ArrivalProfile(name, shares);
+  }
+
+  // Each iteration of the thread group is one Portal session, so the rate is counted in iterations
+  public RpsThreadGroup applyTo(RpsThreadGroup threadGroup) {
+    threadGroup.counting(RpsThreadGroup.EventType.ITERATIONS);
+    for (Stage stage : stages) {
+      threadGroup.rampToAndHold(stage.rate(), stage.rampUp(), stage.holdFor());
+    }
+    return threadGroup;
+  }
+
+  // Target rate at the given offset from the test start
+  public double rateAt(Duration elapsed) {
+    double millis = elapsed.toMillis();
+    double previousRate = INITIAL_RATE;
+    for (Stage stage : stages) {
+      long rampUp = stage.rampUp().toMillis();
+      if (millis < rampUp) {
+        return previousRate + (stage.rate() - previousRate) * millis / rampUp;
+      }
+      millis -= rampUp;
+      if (millis < stage.holdFor().toMillis()) {
+        return stage.rate();
+      }
+      millis -= stage.holdFor().toMillis();
+      previousRate = stage.rate();
+    }
+    return 0;
+  }
+
+  // Sessions that should have started between the test start and the given offset
+  public double expectedArrivals(Duration elapsed) {
+    double seconds = elapsed.toMillis() / 1000.0;
+    double arrivals = 0;
+    double previousRate = INITIAL_RATE;
+    for (Stage stage : stages) {
+      double rampUp = stage.rampUp().toMillis() / 1000.0;
+      if (seconds < rampUp) {
+        double rate = previousRate + (stage.rate() - previousRate) * seconds / rampUp;
+        return arrivals + (previousRate + rate) / 2 * seconds;
+      }
+      arrivals += (previousRate + stage.rate()) / 2 * rampUp;
+      seconds -= rampUp;
+      double holdFor = stage.holdFor().toMillis() / 1000.0;
+      if (seconds < holdFor) {
+        return arrivals + stage.rate() * seconds;
+      }
+      arrivals += stage.rate() * holdFor;
+      seconds -= holdFor;
+      previousRate = stage.rate();
+    }
+    return arrivals;
+  }
+
+  public Duration duration() {
+    return stages.stream()
+      .map(stage -> stage.rampUp().plus(stage.holdFor()))
+      .reduce(Duration.ZERO, Duration::plus);
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public List<Stage> stages() {
+    return stages;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s %s", name, stages);
+  }
+}
@@ -0,0 +1,68 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.preprocessors.DslJsr223PreProcessor;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import static us.abstracta.jmeter.javadsl.JmeterDsl.jsr223PreProcessor;
+
+// Compares actual session starts with the arrival profile schedule.
+// When every thread of the pool is busy the next session starts late or not at all, which a closed model hides.
+public class ArrivalTracker {
+
+  private final ArrivalProfile profile;
+  private final Duration tolerance;
+  private final String sessionStartLabel;
+  private final AtomicLong startNanos = new AtomicLong();
+  private final AtomicLong arrivals = new AtomicLong();
+  private final AtomicLong delayedArrivals = new AtomicLong();
+  private final LongAccumulator maxDelayMillis = new LongAccumulator(Math::max, 0);
+
+  public record Summary(long expected, long actual, long missed, long delayed, Duration maxDelay) {
+
+    @Override
+    public String toString() {
+      return String.format("expected %d sessions, started %d, missed %d, delayed %d (max delay %d ms)",
+        expected, actual, missed, delayed, maxDelay.toMillis());
+    }
+  }
+
+  public ArrivalTracker(ArrivalProfile profile, Duration tolerance, String sessionStartLabel) {
+    this.profile = profile;
+    this.tolerance = tolerance;
+    this.sessionStartLabel = sessionStartLabel;
+  }
+
+  // Thread group level hook, counts an arrival each time the first sampler of the journey is about to run
+  public DslJsr223PreProcessor preProcessor() {
+    return jsr223PreProcessor("Track arrivals", vars -> {
+      if (sessionStartLabel.equals(vars.sampler.getName())) {
+        arrive(System.nanoTime());
+      }
+    });
+  }
+
+  void arrive(long nowNanos) {
+    startNanos.compareAndSet(0, nowNanos);
+    long arrival = arrivals.incrementAndGet();
+    Duration elapsed = Duration.ofNanos(nowNanos - startNanos.get());
+    double behind = profile.expectedArrivals(elapsed) - arrival;
+    double rate = profile.rateAt(elapsed);
+    if (behind <= 0 || rate <= 0) {
+      return;
+    }
+    long delayMillis = (long) (behind / rate * 1000);
+    maxDelayMillis.accumulate(delayMillis);
+    if (delayMillis > tolerance.toMillis()) {
+      delayedArrivals.incrementAndGet();
+    }
+  }
+
+  public Summary summary() {
+    long expected = Math.round(profile.expectedArrivals(profile.duration()));
+    long actual = arrivals.get();
+    return new Summary(expected, actual, Math.max(0, expected - actual), delayedArrivals.get(), Duration.ofMillis(maxDelayMillis.get()));
+  }
+}
@@ -0,0 +1,36 @@
+package com.axonivy;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class ArrivalTrackerTest {
+
+  private final ArrivalProfile profile = ArrivalProfile.parse("steady", "5/10s/60s");
+
+  @Test
+  public void integratesRampAndHold() {
+    // ramp from 1 to 5 sessions/s over 10s, then 5 sessions/s for 60s
+    assertThat(profile.expectedArrivals(Duration.ofSeconds(10))).isCloseTo(30, within(0.001));
+    assertThat(profile.expectedArrivals(profile.duration())).isCloseTo(330, within(0.001));
+    assertThat(profile.rateAt(Duration.ofSeconds(5))).isCloseTo(3, within(0.001));
+  }
+
+  @Test
+  public void countsMissedAndDelayedArrivals() {
+    ArrivalTracker tracker = new ArrivalTracker(profile, Duration.ofSeconds(1), PortalScenario.SESSION_START);
+    long start = 1_000_000L;
+    tracker.arrive(start);
+    // 20s in, 80 sessions are due but only the second one starts: 78 behind at 5/s is ~15.6s late
+    tracker.arrive(start + Duration.ofSeconds(20).toNanos());
+
+    ArrivalTracker.Summary summary = tracker.summary();
+    assertThat(summary.actual()).isEqualTo(2);
+    assertThat(summary.missed()).isEqualTo(328);
+    assertThat(summary.delayed()).isEqualTo(1);
+    assertThat(summary.maxDelay()).isEqualTo(Duration.ofMillis(15600));
+  }
+}
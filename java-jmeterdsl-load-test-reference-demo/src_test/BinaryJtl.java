@@ -0,0 +1,463 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.BuildTreeContext;
+import us.abstracta.jmeter.javadsl.core.listeners.DslListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.apache.jmeter.assertions.AssertionResult;
+import org.apache.jmeter.engine.util.NoThreadClone;
+import org.apache.jmeter.report.config.ConfigurationException;
+import org.apache.jmeter.report.dashboard.GenerationException;
+import org.apache.jmeter.report.dashboard.ReportGenerator;
+import org.apache.jmeter.samplers.Remoteable;
+import org.apache.jmeter.samplers.SampleEvent;
+import org.apache.jmeter.samplers.SampleListener;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jmeter.testelement.TestStateListener;
+import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jorphan.collections.HashTree;
+
+// Compact binary results, an alternative to the CSV jtlWriter for long runs. Same columns as the CSV JTL, but
+// timestamps are stored as varint deltas to the previous sample, numbers as varints and texts (label, response code
+// and message, thread, data type, failure message, URL) as ids of a dictionary per column that grows while writing.
+// A Portal sample takes ~20 bytes instead of ~140. Sampler threads only queue the columns of a sample, one writer
+// thread encodes and writes them, so file I/O never blocks a sampler (unless the queue is full).
+// JtlAnalyzer reads these files directly, toCsv converts them back for JMeter tools and htmlReport builds the dashboard.
+public class BinaryJtl {
+
+  public static final String EXTENSION = ".bjtl";
+  public static final String CSV_HEADER = "timeStamp,elapsed,label,responseCode,responseMessage,threadName,dataType,success,failureMessage,bytes,sentBytes,grpThreads,allThreads,URL,Latency,IdleTime,Connect";
+
+  private static final byte[] MAGIC = {'B', 'J', 'T', 'L', 1};
+  private static final int QUEUE_SIZE = 1 << 16;
+  private static final int BATCH_SIZE = 1024;
+  // per column, texts beyond it (e.g. URLs with ids) are written inline instead of growing the dictionary further
+  private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+  private static final int TEXT_COLUMNS = 7;
+  // text codes: inline text, new dictionary entry, or dictionary id + FIRST_ID
+  private static final int INLINE = 0;
+  private static final int NEW_ENTRY = 1;
+  private static final int FIRST_ID = 2;
+
+  public record Sample(long timeStamp, long elapsed, String label, String responseCode, String responseMessage,
+      String threadName, String dataType, boolean success, String failureMessage, long bytes, long sentBytes,
+      int grpThreads, int allThreads, String url, long latency, long idleTime, long connect) {
+
+    // Only the columns of the CSV JTL, so the queued sample does not keep the response body alive.
+    // Like in the CSV JTL a sample without URL has "null".
+    static Sample of(SampleResult result) {
+      return new Sample(result.getTimeStamp(), result.getTime(), result.getSampleLabel(), result.getResponseCode(),
+        result.getResponseMessage(), result.getThreadName(), result.getDataType(), result.isSuccessful(),
+        failureMessage(result), result.getBytesAsLong(), result.getSentBytes(), result.getGroupThreads(),
+        result.getAllThreads(), String.valueOf(result.getURL()), result.getLatency(), result.getIdleTime(), result.getConnectTime());
+    }
+
+    // As in the CSV JTL: the message of the first failed assertion
+    private static String failureMessage(SampleResult result) {
+      for (AssertionResult assertion : result.getAssertionResults()) {
+        if (assertion.getFailureMessage() != null) {
+          return assertion.getFailureMessage();
+        }
+      }
+      return "";
+    }
+
+    public String toCsv() {
+      StringBuilder line = new StringBuilder(256);
+      line.append(timeStamp).append(',').append(elapsed).append(',');
+      quoted(line, label).append(',');
+      quoted(line, responseCode).append(',');
+      quoted(line, responseMessage).append(',');
+      quoted(line, threadName).append(',');
+      quoted(line, dataType).append(',');
+      line.append(success).append(',');
+      quoted(line, failureMessage).append(',');
+      line.append(bytes).append(',').append(sentBytes).append(',').append(grpThreads).append(',').append(allThreads).append(',');
+      quoted(line, url).append(',');
+      return line.append(latency).append(',').append(idleTime).append(',').append(connect).toString();
+    }
+
+    private static StringBuilder quoted(StringBuilder line, String text) {
+      if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+        return line.append(text);
+      }
+      return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+  }
+
+  // Test plan level listener writing <dir>/<fileName>, drop-in for jtlWriter(dir, fileName)
+  public static DslListener writer(String dir, String fileName) {
+    Collector collector = new Collector(Path.of(dir, fileName));
+    return new DslListener() {
+
+      @Override
+      public HashTree buildTreeUnder(HashTree parent, BuildTreeContext context) {
+        return parent.add(collector);
+      }
+
+      @Override
+      public void showInGui() {
+      }
+    };
+  }
+
+  public static boolean isBinary(Path file) throws IOException {
+    try (InputStream input = Files.newInputStream(file)) {
+      return Arrays.equals(input.readNBytes(MAGIC.length), MAGIC);
+    }
+  }
+
+  // Streams all samples of a file. A truncated last sample, e.g. of a run that was killed while writing, is skipped.
+  public static void read(Path file, Consumer<Sample> consumer) throws IOException {
+    try (InputStream input = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+      if (!Arrays.equals(input.readNBytes(MAGIC.length), MAGIC)) {
+        throw new IOException(file + " is no binary JTL");
+      }
+      Decoder decoder = new Decoder(input);
+      Sample sample;
+      while ((sample = decoder.next()) != null) {
+        consumer.accept(sample);
+      }
+    }
+  }
+
+  public static void toCsv(Path binary, Path csv) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+      writer.write(CSV_HEADER);
+      writer.newLine();
+      read(binary, sample -> {
+        try {
+          writer.write(sample.toCsv());
+          writer.newLine();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  // The JMeter dashboard htmlReporter creates, from the CSV converted into <reportDir>/report.jtl
+  public static void htmlReport(Path binary, Path reportDir) throws IOException {
+    Files.createDirectories(reportDir);
+    Path csv = reportDir.resolve("report.jtl");
+    toCsv(binary, csv);
+    JMeterUtils.setProperty("jmeter.reportgenerator.outputdir", reportDir.toAbsolutePath().toString());
+    try {
+      new ReportGenerator(csv.toString(), null).generate();
+    } catch (ConfigurationException | GenerationException e) {
+      throw new IOException("Could not generate the report of " + binary, e);
+    }
+  }
+
+  // Converts from the command line: BinaryJtl <file.bjtl> <file.jtl>
+  public static void main(String[] args) throws IOException {
+    toCsv(Path.of(args[0]), Path.of(args[1]));
+  }
+
+  // Remoteable like ResultCollector: in distributed runs the file is written on the controller.
+  // Every worker reports its own start and end, the file is open from the first start to the last end.
+  static class Collector extends AbstractTestElement implements SampleListener, TestStateListener, Remoteable, NoThreadClone {
+
+    private final transient Path file;
+    private final transient AtomicInteger runningTests = new AtomicInteger();
+    private transient BlockingQueue<Sample> queue;
+    private transient Thread writer;
+    private transient volatile boolean ended;
+    private transient volatile IOException failure;
+
+    Collector(Path file) {
+      this.file = file;
+    }
+
+    // a distributed run clones the plan before it starts the remote engines, the clone has to stay this instance
+    @Override
+    public Object clone() {
+      return this;
+    }
+
+    @Override
+    public void testStarted() {
+      if (runningTests.getAndIncrement() > 0) {
+        return;
+      }
+      queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+      ended = false;
+      failure = null;
+      writer = Thread.ofPlatform().name("binary-jtl-writer").daemon().start(this::write);
+    }
+
+    @Override
+    public void testStarted(String host) {
+      testStarted();
+    }
+
+    @Override
+    public void sampleOccurred(SampleEvent event) {
+      Sample sample = Sample.of(event.getResult());
+      try {
+        // a full queue slows the samplers down rather than losing samples
+        while (!queue.offer(sample, 100, TimeUnit.MILLISECONDS)) {
+          if (failure != null) {
+            return;
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public void sampleStarted(SampleEvent event) {
+    }
+
+    @Override
+    public void sampleStopped(SampleEvent event) {
+    }
+
+    @Override
+    public void testEnded() {
+      if (runningTests.decrementAndGet() > 0) {
+        return;
+      }
+      ended = true;
+      try {
+        writer.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (failure != null) {
+        throw new UncheckedIOException("Could not write " + file, failure);
+      }
+    }
+
+    @Override
+    public void testEnded(String host) {
+      testEnded();
+    }
+
+    private void write() {
+      List<Sample> batch = new ArrayList<>(BATCH_SIZE);
+      try {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Encoder encoder = new Encoder(Files.newOutputStream(file))) {
+          while (!ended || !queue.isEmpty()) {
+            Sample first = queue.poll(100, TimeUnit.MILLISECONDS);
+            if (first == null) {
+              continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            for (Sample sample : batch) {
+              encoder.write(sample);
+            }
+            batch.clear();
+            // the buffer only fills by itself under load, a killed run loses what is still queued or buffered
+            if (queue.isEmpty()) {
+              encoder.flush();
+            }
+          }
+        }
+      } catch (IOException e) {
+        failure = e;
+      } catch (InterruptedException e) {
+        failure = new IOException("Writer interrupted", e);
+      }
+    }
+  }
+
+  private static class Encoder implements AutoCloseable {
+
+    private final OutputStream output;
+    private final byte[] buffer = new byte[1 << 16];
+    private int position;
+    private long lastTimeStamp;
+    private final List<Map<String, Integer>> dictionaries = new ArrayList<>();
+
+    private Encoder(OutputStream output) throws IOException {
+      this.output = output;
+      for (int i = 0; i < TEXT_COLUMNS; i++) {
+        dictionaries.add(new HashMap<>());
+      }
+      output.write(MAGIC);
+    }
+
+    private void write(Sample sample) throws IOException {
+      writeSigned(sample.timeStamp() - lastTimeStamp);
+      lastTimeStamp = sample.timeStamp();
+      writeUnsigned(sample.elapsed());
+      writeText(0, sample.label());
+      writeText(1, sample.responseCode());
+      writeText(2, sample.responseMessage());
+      writeText(3, sample.threadName());
+      writeText(4, sample.dataType());
+      writeUnsigned(sample.success() ? 1 : 0);
+      writeText(5, sample.failureMessage());
+      writeUnsigned(sample.bytes());
+      writeUnsigned(sample.sentBytes());
+      writeUnsigned(sample.grpThreads());
+      writeUnsigned(sample.allThreads());
+      writeText(6, sample.url());
+      writeUnsigned(sample.latency());
+      writeUnsigned(sample.idleTime());
+      writeUnsigned(sample.connect());
+    }
+
+    private void writeText(int column, String text) throws IOException {
+      String value = text == null ? "" : text;
+      Map<String, Integer> dictionary = dictionaries.get(column);
+      Integer id = dictionary.get(value);
+      if (id != null) {
+        writeUnsigned(id + FIRST_ID);
+        return;
+      }
+      if (dictionary.size() < MAX_DICTIONARY_SIZE) {
+        dictionary.put(value, dictionary.size());
+        writeUnsigned(NEW_ENTRY);
+      } else {
+        writeUnsigned(INLINE);
+      }
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeUnsigned(bytes.length);
+      for (int i = 0; i < bytes.length; i += buffer.length) {
+        int length = Math.min(buffer.length, bytes.length - i);
+        ensureSpace(length);
+        System.arraycopy(bytes, i, buffer, position, length);
+        position += length;
+      }
+    }
+
+    private void writeSigned(long value) throws IOException {
+      writeUnsigned((value << 1) ^ (value >> 63));
+    }
+
+    // LEB128: 7 bits per byte, high bit set on all but the last byte
+    private void writeUnsigned(long value) throws IOException {
+      ensureSpace(10);
+      long rest = value;
+      while ((rest & ~0x7FL) != 0) {
+        buffer[position++] = (byte) ((rest & 0x7F) | 0x80);
+        rest >>>= 7;
+      }
+      buffer[position++] = (byte) rest;
+    }
+
+    private void ensureSpace(int bytes) throws IOException {
+      if (position + bytes > buffer.length) {
+        output.write(buffer, 0, position);
+        position = 0;
+      }
+    }
+
+    private void flush() throws IOException {
+      output.write(buffer, 0, position);
+      output.flush();
+      position = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try (output) {
+        flush();
+      }
+    }
+  }
+
+  private static class Decoder {
+
+    private final InputStream input;
+    private long lastTimeStamp;
+    private final List<List<String>> dictionaries = new ArrayList<>();
+
+    private Decoder(InputStream input) {
+      this.input = input;
+      for (int i = 0; i < TEXT_COLUMNS; i++) {
+        dictionaries.add(new ArrayList<>());
+      }
+    }
+
+    private Sample next() throws IOException {
+      int first = input.read();
+      if (first == -1) {
+        return null;
+      }
+      try {
+        long timeStamp = lastTimeStamp + decodeSigned(readUnsigned(first));
+        Sample sample = new Sample(timeStamp, readUnsigned(), readText(0), readText(1), readText(2), readText(3),
+          readText(4), readUnsigned() == 1, readText(5), readUnsigned(), readUnsigned(), (int) readUnsigned(),
+          (int) readUnsigned(), readText(6), readUnsigned(), readUnsigned(), readUnsigned());
+        lastTimeStamp = timeStamp;
+        return sample;
+      } catch (EOFException e) {
+        return null;
+      }
+    }
+
+    private String readText(int column) throws IOException {
+      int code = (int) readUnsigned();
+      List<String> dictionary = dictionaries.get(column);
+      if (code >= FIRST_ID) {
+        return dictionary.get(code - FIRST_ID);
+      }
+      int length = (int) readUnsigned();
+      byte[] bytes = input.readNBytes(length);
+      if (bytes.length < length) {
+        throw new EOFException();
+      }
+      String text = new String(bytes, StandardCharsets.UTF_8);
+      if (code == NEW_ENTRY) {
+        dictionary.add(text);
+      }
+      return text;
+    }
+
+    private long readUnsigned() throws IOException {
+      int first = input.read();
+      if (first == -1) {
+        throw new EOFException();
+      }
+      return readUnsigned(first);
+    }
+
+    private long readUnsigned(int first) throws IOException {
+      long value = first & 0x7F;
+      int shift = 7;
+      int current = first;
+      while ((current & 0x80) != 0) {
+        current = input.read();
+        if (current == -1) {
+          throw new EOFException();
+        }
+        value |= (long) (current & 0x7F) << shift;
+        shift += 7;
+      }
+      return value;
+    }
+
+    private static long decodeSigned(long value) {
+      return (value >>> 1) ^ -(value & 1);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.axonivy;
+
+import com.axonivy.JtlAnalyzer.LabelSummary;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jmeter.samplers.SampleEvent;
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+public class BinaryJtlTest {
+
+  @Test
+  public void convertsBackToSameCsvAsJtlWriter(@TempDir Path tempDir) throws IOException {
+    runPlan(tempDir);
+
+    Path csv = tempDir.resolve("converted.jtl");
+    BinaryJtl.toCsv(tempDir.resolve("results.bjtl"), csv);
+
+    // the writers see the samples of concurrent threads in a different order,
+    // each multi-line response message of PortalTaskList adds a line
+    List<String> expected = Files.readAllLines(tempDir.resolve("results.jtl")).stream().sorted().toList();
+    List<String> converted = Files.readAllLines(csv).stream().sorted().toList();
+    assertThat(converted).hasSize(1 + 3 * 20 * 3 + 3 * 20).isEqualTo(expected);
+    assertThat(Files.size(tempDir.resolve("results.bjtl"))).isLessThan(Files.size(tempDir.resolve("results.jtl")) / 4);
+  }
+
+  @Test
+  public void analyzesBinaryLikeCsv(@TempDir Path tempDir) throws IOException {
+    runPlan(tempDir);
+
+    Map<String, LabelSummary> csv = JtlAnalyzer.analyze(tempDir.resolve("results.jtl"));
+    Map<String, LabelSummary> binary = JtlAnalyzer.analyze(tempDir.resolve("results.bjtl"));
+
+    assertThat(binary.keySet()).isEqualTo(csv.keySet());
+    csv.forEach((label, summary) -> {
+      assertThat(binary.get(label).samples()).isEqualTo(summary.samples());
+      assertThat(binary.get(label).errors()).isEqualTo(summary.errors());
+      assertThat(binary.get(label).histogram().percentile(90)).isEqualTo(summary.histogram().percentile(90));
+    });
+  }
+
+  @Test
+  public void skipsTruncatedLastSample(@TempDir Path tempDir) throws IOException {
+    runPlan(tempDir);
+    Path binary = tempDir.resolve("results.bjtl");
+    byte[] content = Files.readAllBytes(binary);
+    Files.write(binary, Arrays.copyOf(content, content.length - 3));
+
+    long[] samples = new long[1];
+    BinaryJtl.read(binary, sample -> samples[0]++);
+
+    assertThat(samples[0]).isEqualTo(3 * 20 * 3 - 1);
+  }
+
+  @Test
+  public void writesQueuedSamplesBeforeTestEnds(@TempDir Path tempDir) throws Exception {
+    Path binary = tempDir.resolve("running.bjtl");
+    BinaryJtl.Collector collector = new BinaryJtl.Collector(binary);
+    collector.testStarted();
+    try {
+      SampleResult result = SampleResult.createTestSample(5);
+      result.setSampleLabel("PortalHome");
+      collector.sampleOccurred(new SampleEvent(result, "Portal"));
+
+      // what a run killed now would leave behind
+      long[] samples = new long[1];
+      for (int attempt = 0; attempt < 50 && samples[0] == 0; attempt++) {
+        Thread.sleep(100);
+        BinaryJtl.read(binary, sample -> samples[0]++);
+      }
+      assertThat(samples[0]).isEqualTo(1);
+    } finally {
+      collector.testEnded();
+    }
+  }
+
+  private static void runPlan(Path dir) throws IOException {
+    testPlan(
+      threadGroup(3, 20,
+        dummySampler("Login, \"admin\"", "OK").responseTime(Duration.ofMillis(5)),
+        dummySampler("PortalHome", "<html>home</html>")
+          .url("http://localhost:8081/ivy/faces/pro/portal/Home.xhtml")
+          .children(responseAssertion().containsSubstrings("TaskList")),
+        dummySampler("PortalTaskList", "OK").responseCode("500").responseMessage("Internal\nError").successful(false)),
+      jtlWriter(dir.toString(), "results.jtl"),
+      BinaryJtl.writer(dir.toString(), "results.bjtl")
+    ).run();
+  }
+}
@@ -0,0 +1,185 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+import us.abstracta.jmeter.javadsl.core.engines.AutoStoppedTestException;
+import us.abstracta.jmeter.javadsl.core.stats.StatsSummary;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Finds the highest load the Portal sustains within the SLA. Every step runs the plan at one load level (users or
+// sessions per second, whatever the StepRunner makes of it) and checks it with the SlaGate. The load doubles from
+// capacity.min until a step fails or capacity.max passes, then a binary search between the highest passed and the
+// lowest failed step narrows the gap down to capacity.precision. Every step is kept for the throughput/latency curve.
+// With injector.saturation=fail a step on a saturated injector fails as "injector saturated", whatever its SLA says.
+public class CapacitySearch {
+
+  public static final String MODE_KEY = "capacity.search";
+
+  public static final String INJECTOR_SATURATED = "injector saturated";
+
+  private static final String PREFIX = "capacity.";
+
+  private final int min;
+  private final int max;
+  private final int precision;
+  private final Duration rampUp;
+  private final Duration hold;
+  private final boolean failsSaturatedSteps;
+
+  @FunctionalInterface
+  public interface StepRunner {
+
+    TestPlanStats run(int load) throws IOException, InterruptedException, TimeoutException;
+  }
+
+  // reason: why the step failed, empty when it met the SLA. injector: null when the runner does not monitor it
+  public record Step(int load, double throughput, Duration mean, Duration p90, double errorPercent, String reason,
+    InjectorMonitor.Report injector) {
+
+    public boolean passed() {
+      return reason.isEmpty();
+    }
+
+    // a failed step on a saturated injector says little about the Portal
+    public boolean injectorSaturated() {
+      return injector != null && injector.saturated();
+    }
+
+    @Override
+    public String toString() {
+      String verdict = passed() ? "passed" : reason;
+      if (injectorSaturated()) {
+        String violations = String.join(", ", injector.violations());
+        verdict += reason.equals(INJECTOR_SATURATED) ? ": " + violations : " (injector saturated: " + violations + ")";
+      }
+      return String.format("%8d %12.1f %10d %10d %9.2f%%  %s", load, throughput, mean.toMillis(), p90.toMillis(), errorPercent, verdict);
+    }
+  }
+
+  public record Result(int capacity, int max, List<Step> steps) {
+
+    // Steps by load, the throughput/latency curve of the Portal
+    public List<Step> curve() {
+      return steps.stream().sorted(Comparator.comparingInt(Step::load)).toList();
+    }
+
+    public void writeCsv(Path file) throws IOException {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      Files.writeString(file, "load,throughput,mean_ms,p90_ms,error_percent,passed\n" + curve().stream()
+        .map(step -> String.format(Locale.ROOT, "%d,%.2f,%d,%d,%.2f,%b", step.load(), step.throughput(),
+          step.mean().toMillis(), step.p90().toMillis(), step.errorPercent(), step.passed()))
+        .collect(Collectors.joining("\n", "", "\n")));
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder table = new StringBuilder(String.format("%8s %12s %10s %10s %10s  %s%n", "Load", "Samples/s", "Mean ms", "P90 ms", "Errors", "SLA"));
+      curve().forEach(step -> table.append(step).append(System.lineSeparator()));
+      if (capacity == 0) {
+        table.append("Not even the lowest load met the SLA");
+      } else {
+        table.append(String.format("Capacity: %s%d", capacity == max ? "at least " : "", capacity));
+      }
+      return table.append(System.lineSeparator()).toString();
+    }
+  }
+
+  public CapacitySearch(int min, int max, int precision, Duration rampUp, Duration hold) {
+    this(min, max, precision, rampUp, hold, false);
+  }
+
+  // failsSaturatedSteps: a completed step on a saturated injector fails instead of being judged by its SLA
+  public CapacitySearch(int min, int max, int precision, Duration rampUp, Duration hold, boolean failsSaturatedSteps) {
+    if (min < 1 || max < min || precision < 1) {
+      throw new IllegalArgumentException(String.format("Invalid capacity search from %d to %d with precision %d", min, max, precision));
+    }
+    this.min = min;
+    this.max = max;
+    this.precision = precision;
+    this.rampUp = rampUp;
+    this.hold = hold;
+    this.failsSaturatedSteps = failsSaturatedSteps;
+  }
+
+  public static CapacitySearch fromProperties(TestProperties properties) {
+    return new CapacitySearch(properties.getInt(PREFIX + "min", 1), properties.getInt(PREFIX + "max", 100),
+      properties.getInt(PREFIX + "precision", 5), properties.getDuration(PREFIX + "ramp.up", Duration.ofSeconds(30)),
+      properties.getDuration(PREFIX + "hold", Duration.ofMinutes(2)), InjectorMonitor.failsSaturatedRuns(properties));
+  }
+
+  // Ramp up and hold of every step
+  public Duration rampUp() {
+    return rampUp;
+  }
+
+  public Duration hold() {
+    return hold;
+  }
+
+  public Result run(SlaGate slaGate, StepRunner runner) throws IOException, InterruptedException, TimeoutException {
+    return run(slaGate, runner, () -> null);
+  }
+
+  // injector: report of the InjectorMonitor of the step that just ran, whether it completed or was stopped
+  public Result run(SlaGate slaGate, StepRunner runner, Supplier<InjectorMonitor.Report> injector) throws IOException, InterruptedException, TimeoutException {
+    List<Step> steps = new ArrayList<>();
+    int passed = 0;
+    int failed = Integer.MAX_VALUE;
+    int load = min;
+    while (load > 0) {
+      Step step = step(load, slaGate, runner, injector);
+      steps.add(step);
+      System.out.printf("Capacity step %s%n", step);
+      if (step.passed()) {
+        passed = load;
+      } else {
+        failed = load;
+      }
+      load = nextLoad(passed, failed);
+    }
+    return new Result(passed, max, steps);
+  }
+
+  // 0 once the search converged
+  private int nextLoad(int passed, int failed) {
+    if (failed == Integer.MAX_VALUE) {
+      return passed >= max ? 0 : Math.min(passed * 2, max);
+    }
+    if (failed - Math.max(passed, min - 1) <= precision) {
+      return 0;
+    }
+    return (passed + failed) / 2;
+  }
+
+  private Step step(int load, SlaGate slaGate, StepRunner runner, Supplier<InjectorMonitor.Report> injector)
+    throws IOException, InterruptedException, TimeoutException {
+    TestPlanStats stats;
+    try {
+      stats = runner.run(load);
+    } catch (AutoStoppedTestException e) {
+      return new Step(load, 0, Duration.ZERO, Duration.ZERO, 0, "stopped by the live SLA gate", injector.get());
+    }
+    StatsSummary overall = stats.overall();
+    InjectorMonitor.Report report = injector.get();
+    String reason;
+    if (failsSaturatedSteps && report != null && report.saturated()) {
+      reason = INJECTOR_SATURATED;
+    } else {
+      reason = slaGate.evaluate(stats).stream()
+        .map(violation -> violation.label() + " " + violation.metric().key())
+        .collect(Collectors.joining(", "));
+    }
+    return new Step(load, overall.samples().perSecond(), overall.sampleTime().mean(), overall.sampleTime().perc90(),
+      overall.samplesCount() == 0 ? 0 : 100.0 * overall.errorsCount() / overall.samplesCount(), reason, report);
+  }
+}
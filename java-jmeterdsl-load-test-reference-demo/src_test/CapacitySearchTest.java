@@ -0,0 +1,101 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+import us.abstracta.jmeter.javadsl.core.engines.AutoStoppedTestException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+public class CapacitySearchTest {
+
+  @Test
+  public void convergesOnHighestLoadWithinSla(@TempDir Path tempDir) throws Exception {
+    SlaGate slaGate = slaGate(tempDir, "sla.default.p90=100ms\n");
+    CapacitySearch search = new CapacitySearch(1, 64, 1, Duration.ZERO, Duration.ZERO);
+
+    // response time grows by 10 ms per user, so 10 users are the most within 100 ms
+    CapacitySearch.Result result = search.run(slaGate, CapacitySearchTest::runWithLatencyPerUser);
+
+    assertThat(result.capacity()).isEqualTo(10);
+    assertThat(result.steps()).extracting(CapacitySearch.Step::load).containsExactly(1, 2, 4, 8, 16, 12, 10, 11);
+    assertThat(result.curve()).extracting(CapacitySearch.Step::load).containsExactly(1, 2, 4, 8, 10, 11, 12, 16);
+    assertThat(result.curve().get(4).passed()).isTrue();
+    assertThat(result.curve().get(5).reason()).isEqualTo("Portal p90");
+
+    Path csv = tempDir.resolve("capacity.csv");
+    result.writeCsv(csv);
+    List<String> lines = Files.readAllLines(csv);
+    assertThat(lines).hasSize(9);
+    assertThat(lines.get(5)).startsWith("10,").endsWith(",100,100,0.00,true");
+  }
+
+  @Test
+  public void stopsAtConfiguredBounds(@TempDir Path tempDir) throws Exception {
+    CapacitySearch search = new CapacitySearch(3, 20, 5, Duration.ZERO, Duration.ZERO);
+
+    CapacitySearch.Result unlimited = search.run(slaGate(tempDir, "sla.default.p90=1s\n"), CapacitySearchTest::runWithLatencyPerUser);
+    assertThat(unlimited.steps()).extracting(CapacitySearch.Step::load).containsExactly(3, 6, 12, 20);
+    assertThat(unlimited.capacity()).isEqualTo(20);
+    assertThat(unlimited.toString()).contains("Capacity: at least 20");
+
+    CapacitySearch.Result overloaded = search.run(slaGate(tempDir, "sla.default.p90=10ms\n"), CapacitySearchTest::runWithLatencyPerUser);
+    assertThat(overloaded.steps()).extracting(CapacitySearch.Step::load).containsExactly(3);
+    assertThat(overloaded.capacity()).isZero();
+  }
+
+  @Test
+  public void keepsInjectorReportOfStoppedSteps(@TempDir Path tempDir) throws Exception {
+    CapacitySearch search = new CapacitySearch(4, 4, 1, Duration.ZERO, Duration.ZERO);
+    InjectorMonitor.Report saturated = new InjectorMonitor.Report(Duration.ofSeconds(10), 10, 10, 99, 100, 100, 50, 40,
+      Duration.ZERO, 0, 30, false, List.of("CPU p90 99% > 80%"));
+
+    CapacitySearch.Result result = search.run(slaGate(tempDir, "sla.default.p90=1s\n"), users -> {
+      throw new AutoStoppedTestException("error rate above the live limit");
+    }, () -> saturated);
+
+    CapacitySearch.Step step = result.steps().get(0);
+    assertThat(step.passed()).isFalse();
+    assertThat(step.injector()).isSameAs(saturated);
+    assertThat(step.toString()).contains("stopped by the live SLA gate (injector saturated: CPU p90 99% > 80%)");
+  }
+
+  @Test
+  public void failsStepsOnSaturatedInjector(@TempDir Path tempDir) throws Exception {
+    CapacitySearch search = new CapacitySearch(4, 4, 1, Duration.ZERO, Duration.ZERO, true);
+    InjectorMonitor.Report saturated = new InjectorMonitor.Report(Duration.ofSeconds(10), 10, 10, 99, 100, 100, 50, 40,
+      Duration.ZERO, 0, 30, false, List.of("CPU p90 99% > 80%"));
+
+    CapacitySearch.Result result = search.run(slaGate(tempDir, "sla.default.p90=1s\n"), CapacitySearchTest::runWithLatencyPerUser,
+      () -> saturated);
+    result.writeCsv(tempDir.resolve("capacity.csv"));
+
+    CapacitySearch.Step step = result.steps().get(0);
+    assertThat(step.reason()).isEqualTo(CapacitySearch.INJECTOR_SATURATED);
+    assertThat(step.throughput()).isPositive();
+    assertThat(step.toString()).contains("injector saturated: CPU p90 99% > 80%");
+    assertThat(result.capacity()).isZero();
+    assertThat(Files.readAllLines(tempDir.resolve("capacity.csv"))).last().asString().endsWith(",false");
+  }
+
+  private static TestPlanStats runWithLatencyPerUser(int users) throws IOException {
+    return testPlan(
+      threadGroup(users, 2,
+        dummySampler("Portal", "OK").responseTime(Duration.ofMillis(10L * users)))
+    ).run();
+  }
+
+  private static SlaGate slaGate(Path tempDir, String thresholds) throws Exception {
+    Path file = tempDir.resolve("sla.properties");
+    Files.writeString(file, thresholds);
+    return new SlaGate(new TestProperties(file.toString()));
+  }
+}
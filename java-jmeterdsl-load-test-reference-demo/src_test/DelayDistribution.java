@@ -0,0 +1,78 @@
+package com.axonivy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+// Random delays in milliseconds, used for think times and the latencies of the MockPortalServer:
+// "50ms" (constant), "uniform 20ms 80ms", "gaussian 5s 2s" (mean and deviation), "lognormal 120ms 0.5" (median and sigma)
+// or "recorded think-times.txt", which picks one of the delays measured in production (one duration or millis per line).
+public class DelayDistribution {
+
+  // recorded files are read once per JVM, not once per thread
+  private static final Map<Path, long[]> RECORDED = new ConcurrentHashMap<>();
+
+  private DelayDistribution() {
+  }
+
+  public static LongSupplier parse(String spec) {
+    String[] parts = spec.trim().split("\\s+");
+    switch (parts[0]) {
+      case "uniform": {
+        long min = millis(parts, 1);
+        long max = millis(parts, 2);
+        return () -> ThreadLocalRandom.current().nextLong(min, max + 1);
+      }
+      case "gaussian": {
+        double mean = millis(parts, 1);
+        double deviation = millis(parts, 2);
+        return () -> Math.max(0, Math.round(mean + deviation * ThreadLocalRandom.current().nextGaussian()));
+      }
+      case "lognormal": {
+        double median = millis(parts, 1);
+        double sigma = Double.parseDouble(argument(parts, 2));
+        return () -> Math.round(median * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+      }
+      case "recorded": {
+        long[] delays = RECORDED.computeIfAbsent(Path.of(argument(parts, 1)), DelayDistribution::readRecorded);
+        return () -> delays[ThreadLocalRandom.current().nextInt(delays.length)];
+      }
+      default: {
+        long millis = TestProperties.parseDuration(parts[0]).toMillis();
+        return () -> millis;
+      }
+    }
+  }
+
+  private static long millis(String[] parts, int index) {
+    return TestProperties.parseDuration(argument(parts, index)).toMillis();
+  }
+
+  private static String argument(String[] parts, int index) {
+    if (index >= parts.length) {
+      throw new IllegalArgumentException("Missing argument " + index + " in delay '" + String.join(" ", parts) + "'");
+    }
+    return parts[index];
+  }
+
+  private static long[] readRecorded(Path file) {
+    try {
+      long[] delays = Files.readAllLines(file).stream()
+        .map(String::trim)
+        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+        .mapToLong(line -> Character.isDigit(line.charAt(line.length() - 1)) ? Long.parseLong(line) : TestProperties.parseDuration(line).toMillis())
+        .toArray();
+      if (delays.length == 0) {
+        throw new IllegalArgumentException("No delays recorded in " + file);
+      }
+      return delays;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read recorded delays " + file, e);
+    }
+  }
+}
@@ -0,0 +1,235 @@
+package com.axonivy;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GarbageCollectorMXBean;
+import com.sun.management.GcInfo;
+import com.sun.management.OperatingSystemMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+// Samples CPU, heap, GC pauses and threads of the JVM running JMeter (the injector) while a test runs.
+// A CPU or GC saturated injector sends requests late and measures responses late, so the Portal latencies of
+// such a run are inflated by the injector itself. Limits, read from test.properties:
+//   injector.max.cpu             90th percentile of the process CPU usage, percent of all cores, after the
+//                                injector.warmup and only with at least injector.min.samples samples
+//   injector.max.heap.after.gc   heap still used after the latest GC, percent of the max heap
+//   injector.max.gc              share of the run the JVM spent in GC pauses, percent, summed from the GC notifications
+//                                of pause collections only
+//   injector.max.threads         live threads, unlimited when not set
+// Distributed runs only sample the controller, every worker is a JVM of its own.
+public class InjectorMonitor implements AutoCloseable {
+
+  public static final String INTERVAL_KEY = "injector.monitor.interval";
+  public static final String SATURATION_KEY = "injector.saturation";
+
+  private final Duration interval;
+  private final Duration warmup;
+  private final int minSamples;
+  private final Limits limits;
+  private final OperatingSystemMXBean os = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+  private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getPlatformMXBeans(GarbageCollectorMXBean.class).stream()
+    .filter(collector -> isPause(collector.getName(), ""))
+    .toList();
+  private final Set<String> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+    .filter(pool -> pool.getType() == MemoryType.HEAP)
+    .map(MemoryPoolMXBean::getName)
+    .collect(Collectors.toSet());
+  private final List<Sample> samples = new ArrayList<>();
+  private ScheduledExecutorService scheduler;
+  private final LongAdder gcPauseMillis = new LongAdder();
+  private final NotificationListener gcListener = this::collected;
+  private long startMillis;
+
+  // cpu and heap in percent, -1 when the JVM does not provide the value
+  private record Sample(long millis, double processCpu, double systemCpu, double heap, double heapAfterGc, int threads) {
+  }
+
+  // Thresholds in percent, 0 threads for no thread limit
+  public record Limits(double maxCpu, double maxHeapAfterGc, double maxGc, int maxThreads) {
+  }
+
+  // cpuSamples are the samples after the warm-up, too few of them make the CPU figures inconclusive
+  public record Report(Duration duration, int samples, int cpuSamples, double cpuP90, double cpuPeak, double systemCpuPeak,
+    double heapPeak, double heapAfterGcPeak, Duration gcPauses, double gcPercent, int peakThreads, boolean cpuInconclusive,
+    List<String> violations) {
+
+    public boolean saturated() {
+      return !violations.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+      String summary = String.format("%d samples in %ds (%d after warm-up): process CPU p90 %.0f%% (peak %.0f%%, system %.0f%%), heap peak %.0f%% (%.0f%% after GC), "
+          + "GC pauses %dms (%.1f%% of the run), %d threads at peak",
+        samples, duration.toSeconds(), cpuSamples, cpuP90, cpuPeak, systemCpuPeak, heapPeak, heapAfterGcPeak, gcPauses.toMillis(), gcPercent, peakThreads);
+      if (cpuInconclusive) {
+        summary += System.lineSeparator() + "Injector CPU inconclusive: too few samples after the warm-up, the run was too short to judge";
+      }
+      return violations.isEmpty() ? summary : summary + System.lineSeparator() + "Injector saturated: " + String.join(", ", violations);
+    }
+  }
+
+  public InjectorMonitor(Duration interval, Limits limits) {
+    this(interval, Duration.ZERO, 1, limits);
+  }
+
+  // Samples within the warm-up after start() see class loading, JIT compilation and the first connections,
+  // not the load the injector sustains
+  public InjectorMonitor(Duration interval, Duration warmup, int minSamples, Limits limits) {
+    this.interval = interval;
+    this.warmup = warmup;
+    this.minSamples = Math.max(1, minSamples);
+    this.limits = limits;
+  }
+
+  public static InjectorMonitor fromProperties(TestProperties properties) {
+    return new InjectorMonitor(properties.getDuration(INTERVAL_KEY, Duration.ofSeconds(1)),
+      properties.getDuration("injector.warmup", Duration.ofSeconds(10)), properties.getInt("injector.min.samples", 10),
+      new Limits(properties.getDouble("injector.max.cpu", 80), properties.getDouble("injector.max.heap.after.gc", 85),
+        properties.getDouble("injector.max.gc", 10), properties.getInt("injector.max.threads", 0)));
+  }
+
+  // fail: saturated runs fail before their SLA is checked, warn (default): they are only flagged in the output
+  public static boolean failsSaturatedRuns(TestProperties properties) {
+    return "fail".equals(properties.get(SATURATION_KEY, "warn"));
+  }
+
+  public InjectorMonitor start() {
+    startMillis = System.currentTimeMillis();
+    for (GarbageCollectorMXBean collector : collectors) {
+      ((NotificationEmitter) collector).addNotificationListener(gcListener, null, null);
+    }
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "injector-monitor");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleAtFixedRate(this::sample, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    return this;
+  }
+
+  public Report stop() {
+    close();
+    sample();
+    Duration duration = Duration.ofMillis(Math.max(1, System.currentTimeMillis() - startMillis));
+    Duration gcPauses = Duration.ofMillis(gcPauseMillis.sum());
+    List<Sample> taken;
+    synchronized (samples) {
+      taken = List.copyOf(samples);
+    }
+    long warmedUp = startMillis + warmup.toMillis();
+    double[] cpu = taken.stream()
+      .filter(sample -> sample.millis() >= warmedUp)
+      .mapToDouble(Sample::processCpu)
+      .filter(value -> value >= 0)
+      .sorted()
+      .toArray();
+    boolean cpuInconclusive = cpu.length < minSamples;
+    double cpuP90 = cpu.length == 0 ? 0 : cpu[(int) Math.ceil(cpu.length * 0.9) - 1];
+    double cpuPeak = cpu.length == 0 ? 0 : cpu[cpu.length - 1];
+    double systemCpuPeak = taken.stream().mapToDouble(Sample::systemCpu).max().orElse(0);
+    double heapPeak = taken.stream().mapToDouble(Sample::heap).max().orElse(0);
+    double heapAfterGcPeak = taken.stream().mapToDouble(Sample::heapAfterGc).max().orElse(0);
+    double gcPercent = 100.0 * gcPauses.toMillis() / duration.toMillis();
+    int peakThreads = taken.stream().mapToInt(Sample::threads).max().orElse(0);
+
+    List<String> violations = new ArrayList<>();
+    if (!cpuInconclusive && cpuP90 > limits.maxCpu()) {
+      violations.add(String.format("CPU p90 %.0f%% > %.0f%%", cpuP90, limits.maxCpu()));
+    }
+    if (heapAfterGcPeak > limits.maxHeapAfterGc()) {
+      violations.add(String.format("heap after GC %.0f%% > %.0f%%", heapAfterGcPeak, limits.maxHeapAfterGc()));
+    }
+    if (gcPercent > limits.maxGc()) {
+      violations.add(String.format("GC pauses %.1f%% > %.1f%%", gcPercent, limits.maxGc()));
+    }
+    if (limits.maxThreads() > 0 && peakThreads > limits.maxThreads()) {
+      violations.add(String.format("threads %d > %d", peakThreads, limits.maxThreads()));
+    }
+    return new Report(duration, taken.size(), cpu.length, cpuP90, cpuPeak, systemCpuPeak, heapPeak, heapAfterGcPeak, gcPauses,
+      gcPercent, peakThreads, cpuInconclusive, violations);
+  }
+
+  @Override
+  public void close() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      for (GarbageCollectorMXBean collector : collectors) {
+        try {
+          ((NotificationEmitter) collector).removeNotificationListener(gcListener);
+        } catch (ListenerNotFoundException ex) {
+          // closed twice
+        }
+      }
+    }
+  }
+
+  private void sample() {
+    MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    long maxHeap = heap.getMax() > 0 ? heap.getMax() : Runtime.getRuntime().maxMemory();
+    Sample sample = new Sample(System.currentTimeMillis(), percent(os.getProcessCpuLoad()), percent(os.getCpuLoad()), 100.0 * heap.getUsed() / maxHeap,
+      100.0 * heapAfterLatestGc() / maxHeap, threads.getThreadCount());
+    synchronized (samples) {
+      samples.add(sample);
+    }
+  }
+
+  private static double percent(double load) {
+    return load < 0 ? -1 : load * 100;
+  }
+
+  private void collected(Notification notification, Object handback) {
+    if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+      return;
+    }
+    GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+    if (isPause(info.getGcName(), info.getGcAction())) {
+      gcPauseMillis.add(info.getGcInfo().getDuration());
+    }
+  }
+
+  // Concurrent cycles ("G1 Concurrent GC", "ZGC Major Cycles", "Shenandoah Cycles", action "end of concurrent GC")
+  // run next to the application threads, their duration is not a pause
+  private static boolean isPause(String gcName, String gcAction) {
+    return !gcName.contains("Concurrent") && !gcName.contains("Cycles") && !gcAction.contains("concurrent");
+  }
+
+  // Heap in use right after the most recent collection of any collector, what survives is what the injector holds on to
+  private long heapAfterLatestGc() {
+    GcInfo latest = collectors.stream()
+      .map(GarbageCollectorMXBean::getLastGcInfo)
+      .filter(Objects::nonNull)
+      .reduce((first, second) -> first.getEndTime() >= second.getEndTime() ? first : second)
+      .orElse(null);
+    if (latest == null) {
+      return 0;
+    }
+    Map<String, MemoryUsage> afterGc = latest.getMemoryUsageAfterGc();
+    return afterGc.entrySet().stream()
+      .filter(pool -> heapPools.contains(pool.getKey()))
+      .mapToLong(pool -> pool.getValue().getUsed())
+      .sum();
+  }
+}
@@ -0,0 +1,72 @@
+package com.axonivy;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+public class InjectorMonitorTest {
+
+  @Test
+  public void samplesInjectorDuringRun() throws Exception {
+    InjectorMonitor.Report report;
+    try (InjectorMonitor monitor = new InjectorMonitor(Duration.ofMillis(50), new InjectorMonitor.Limits(100, 100, 100, 0)).start()) {
+      testPlan(
+        threadGroup(20, 10,
+          dummySampler("Portal", "OK").responseTime(Duration.ofMillis(20)).simulateResponseTime(true))
+      ).run();
+      report = monitor.stop();
+    }
+
+    assertThat(report.samples()).isGreaterThan(2);
+    assertThat(report.peakThreads()).isGreaterThan(20);
+    assertThat(report.heapPeak()).isBetween(0.0, 100.0);
+    assertThat(report.cpuP90()).isLessThanOrEqualTo(report.cpuPeak());
+    assertThat(report.saturated()).isFalse();
+  }
+
+  @Test
+  public void flagsRunsBeyondLimits() throws Exception {
+    InjectorMonitor.Report report;
+    try (InjectorMonitor monitor = new InjectorMonitor(Duration.ofMillis(50), new InjectorMonitor.Limits(100, 0, 100, 1)).start()) {
+      System.gc();
+      report = monitor.stop();
+    }
+
+    assertThat(report.saturated()).isTrue();
+    assertThat(report.violations()).hasSize(2);
+    assertThat(report.violations().get(0)).startsWith("heap after GC");
+    assertThat(report.violations().get(1)).startsWith("threads");
+    assertThat(report.toString()).contains("Injector saturated: heap after GC");
+  }
+
+  @Test
+  public void judgesCpuOnlyAfterWarmup() throws Exception {
+    InjectorMonitor.Report report;
+    try (InjectorMonitor monitor = new InjectorMonitor(Duration.ofMillis(50), Duration.ofMillis(200), 3,
+      new InjectorMonitor.Limits(0, 100, 100, 0)).start()) {
+      report = monitor.stop();
+    }
+
+    assertThat(report.cpuSamples()).isZero();
+    assertThat(report.cpuInconclusive()).isTrue();
+    assertThat(report.saturated()).isFalse();
+    assertThat(report.toString()).contains("Injector CPU inconclusive");
+  }
+
+  @Test
+  public void flagsCpuBeyondLimitWithEnoughSamples() throws Exception {
+    InjectorMonitor.Report report;
+    try (InjectorMonitor monitor = new InjectorMonitor(Duration.ofMillis(20), Duration.ofMillis(50), 3,
+      new InjectorMonitor.Limits(-1, 100, 100, 0)).start()) {
+      Thread.sleep(300);
+      report = monitor.stop();
+    }
+
+    assertThat(report.cpuSamples()).isLessThan(report.samples()).isGreaterThanOrEqualTo(3);
+    assertThat(report.cpuInconclusive()).isFalse();
+    assertThat(report.violations()).singleElement().asString().startsWith("CPU p90");
+  }
+}
@@ -0,0 +1,44 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.engines.JmeterEnvironment;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.apache.jmeter.engine.RemoteJMeterEngineImpl;
+import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jorphan.collections.HashTree;
+
+// JMeter remote engine (what "jmeter-server" starts) running on the test classpath, so the Portal plan and its
+// jsr223 script classes need no JMeter installation on the worker.
+// Usage: JmeterWorker <rmi port> [key=value ...], the pairs override test.properties like -D does in the tests.
+public class JmeterWorker {
+
+  public static final String READY_MESSAGE = "JMeter worker listening";
+
+  public static void main(String[] args) throws Exception {
+    int port = Integer.parseInt(args[0]);
+    JmeterEnvironment environment = new JmeterEnvironment();
+    // JMeter only finds functions like __P on its search path, which would be the lib folders of an installation
+    environment.updateSearchPath(new HashTree());
+    Properties properties = JMeterUtils.getJMeterProperties();
+    try (InputStream input = new FileInputStream(PortalScenario.PROPERTIES_FILE)) {
+      properties.load(input);
+    }
+    for (int i = 1; i < args.length; i++) {
+      String[] keyAndValue = args[i].split("=", 2);
+      properties.setProperty(keyAndValue[0], keyAndValue[1]);
+      // TestProperties reads overrides from the system properties
+      System.setProperty(keyAndValue[0], keyAndValue[1]);
+    }
+    System.setProperty("java.rmi.server.hostname", properties.getProperty("distributed.worker.host", "127.0.0.1"));
+    startServer(port);
+  }
+
+  private static void startServer(int port) throws IOException {
+    RemoteJMeterEngineImpl.startServer(port);
+    System.out.printf("%s on port %d%n", READY_MESSAGE, port);
+  }
+}
@@ -0,0 +1,120 @@
+package com.axonivy;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// JMeter worker JVMs (see JmeterWorker) on this machine, for distributed runs without remote hosts.
+// Each worker gets its index and the worker count, so per worker data like the user pool can be split.
+public class JmeterWorkers implements AutoCloseable {
+
+  // host:port list of workers started elsewhere, e.g. with "java -cp <test classpath> com.axonivy.JmeterWorker 1099"
+  public static final String HOSTS_KEY = "distributed.hosts";
+  // number of workers to start on this machine
+  public static final String LOCAL_KEY = "distributed.local.workers";
+  public static final String INDEX_KEY = "distributed.worker.index";
+  public static final String COUNT_KEY = "distributed.worker.count";
+  // RMI without keystore, only set for the workers started here: they run on this machine and are reached on 127.0.0.1
+  public static final String RMI_SSL_DISABLE_KEY = "server.rmi.ssl.disable";
+
+  private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+  private final List<Process> processes = new ArrayList<>();
+  private final List<String> hosts = new ArrayList<>();
+
+  private JmeterWorkers() {
+  }
+
+  // properties: JMeter properties overriding test.properties on every worker, e.g. the MockPortalServer address
+  // and the TestProperties.overrides() of the run
+  public static JmeterWorkers start(int count, Map<String, String> properties, Path logDir) throws IOException, InterruptedException {
+    Files.createDirectories(logDir);
+    JmeterWorkers workers = new JmeterWorkers();
+    try {
+      for (int index = 0; index < count; index++) {
+        workers.launch(index, count, properties, logDir.resolve("worker-" + index + ".log"));
+      }
+      for (int index = 0; index < count; index++) {
+        workers.awaitListening(index, logDir.resolve("worker-" + index + ".log"));
+      }
+    } catch (IOException | InterruptedException | RuntimeException e) {
+      workers.close();
+      throw e;
+    }
+    return workers;
+  }
+
+  public List<String> hosts() {
+    return hosts;
+  }
+
+  // JMeter properties of a controller running its plan on these workers
+  public Map<String, String> controllerProperties() {
+    return Map.of(HOSTS_KEY, String.join(",", hosts), RMI_SSL_DISABLE_KEY, "true");
+  }
+
+  public int size() {
+    return processes.size();
+  }
+
+  @Override
+  public void close() {
+    processes.forEach(Process::destroy);
+    for (Process process : processes) {
+      try {
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+          process.destroyForcibly();
+        }
+      } catch (InterruptedException e) {
+        process.destroyForcibly();
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void launch(int index, int count, Map<String, String> properties, Path log) throws IOException {
+    int port = freePort();
+    List<String> command = new ArrayList<>(List.of(
+      Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+      "-cp", System.getProperty("java.class.path"),
+      "-Dlog4j2.contextSelector=org.apache.logging.log4j.core.selector.BasicContextSelector",
+      JmeterWorker.class.getName(),
+      String.valueOf(port),
+      INDEX_KEY + "=" + index,
+      COUNT_KEY + "=" + count,
+      RMI_SSL_DISABLE_KEY + "=true"));
+    properties.forEach((key, value) -> command.add(key + "=" + value));
+    processes.add(new ProcessBuilder(command)
+      .redirectErrorStream(true)
+      .redirectOutput(log.toFile())
+      .start());
+    hosts.add("127.0.0.1:" + port);
+  }
+
+  // The RMI port accepts connections before the engine is bound, so wait for the worker to report it is ready
+  private void awaitListening(int index, Path log) throws IOException, InterruptedException {
+    long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+    while (System.nanoTime() < deadline) {
+      if (Files.readString(log).contains(JmeterWorker.READY_MESSAGE)) {
+        return;
+      }
+      if (!processes.get(index).isAlive()) {
+        throw new IllegalStateException("JMeter worker " + index + " exited, see " + log);
+      }
+      Thread.sleep(200);
+    }
+    throw new IllegalStateException("JMeter worker " + index + " not ready after " + STARTUP_TIMEOUT.toSeconds() + "s, see " + log);
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.axonivy;
+
+import com.axonivy.PortalScenario.RunMode;
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+public class JmeterWorkersTest {
+
+  @Test
+  public void runsPortalWalkthroughOnLocalWorkers(@TempDir Path tempDir) throws Exception {
+    try (MockPortalServer mockPortal = new MockPortalServer(MockPortalServerTest.mockProperties(tempDir)).start()) {
+      Map<String, String> properties = new HashMap<>(mockPortal.jmeterProperties());
+      properties.put("user.pool.generate.username", "user{0}");
+      properties.put("user.pool.generate.password", "secret{0}");
+      properties.put("user.pool.size", "20");
+      properties.put("user.pool.mode", "unique");
+      try (JmeterWorkers workers = JmeterWorkers.start(2, properties, tempDir.resolve("workers"))) {
+        properties.putAll(workers.controllerProperties());
+        LoadProfile loadProfile = LoadProfile.rampTo(6, Duration.ZERO, 2).perWorker(workers.size());
+        TestPlanStats stats = PortalScenario.run(testPlan(
+            PortalScenario.portalThreadGroup("distributed", loadProfile, UserPool.workerPreProcessor()),
+            jtlWriter(tempDir.toString(), "distributed.jtl")),
+          RunMode.DISTRIBUTED, properties);
+
+        int samples = 2 * 3 * 2 * PortalScenario.walkthrough().length;
+        assertThat(stats.overall().samplesCount()).isEqualTo(samples);
+        assertThat(stats.overall().errorsCount()).isZero();
+        // samples of both workers end up in one JTL: header plus one line per sample
+        try (Stream<String> lines = Files.lines(tempDir.resolve("distributed.jtl"))) {
+          assertThat(lines.count()).isEqualTo(samples + 1);
+        }
+        assertThat(mockPortal.stats().logins()).isEqualTo(12);
+        assertThat(mockPortal.stats().viewStateErrors()).isZero();
+      }
+    }
+  }
+
+  @Test
+  public void startsUniquePoolOverForEveryRun(@TempDir Path tempDir) throws Exception {
+    try (MockPortalServer mockPortal = new MockPortalServer(MockPortalServerTest.mockProperties(tempDir)).start()) {
+      Map<String, String> properties = new HashMap<>(mockPortal.jmeterProperties());
+      properties.put("user.pool.generate.username", "user{0}");
+      properties.put("user.pool.generate.password", "secret{0}");
+      properties.put("user.pool.size", "4");
+      properties.put("user.pool.mode", "unique");
+      try (JmeterWorkers workers = JmeterWorkers.start(2, properties, tempDir.resolve("workers"))) {
+        properties.putAll(workers.controllerProperties());
+        // every run takes the whole pool, the second one would find it exhausted if the workers kept counting
+        for (int run = 1; run <= 2; run++) {
+          TestPlanStats stats = PortalScenario.run(testPlan(
+              PortalScenario.portalThreadGroup("unique", LoadProfile.rampTo(4, Duration.ZERO, 1).perWorker(workers.size()),
+                UserPool.workerPreProcessor())),
+            RunMode.DISTRIBUTED, properties);
+
+          assertThat(stats.overall().samplesCount()).isEqualTo(4 * PortalScenario.walkthrough().length);
+          assertThat(stats.overall().errorsCount()).isZero();
+          assertThat(mockPortal.stats().logins()).isEqualTo(4L * run);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void forwardsOverridesOfTestProperties(@TempDir Path tempDir) throws Exception {
+    Path file = tempDir.resolve("test.properties");
+    Files.writeString(file, "server.host=localhost\n#user.pool.size=10000\n");
+    System.setProperty("server.host", "portal.example.com");
+    System.setProperty("user.pool.size", "20");
+    try {
+      Map<String, String> overrides = new TestProperties(file.toString()).overrides();
+
+      assertThat(overrides).containsEntry("server.host", "portal.example.com").containsEntry("user.pool.size", "20");
+      assertThat(overrides).doesNotContainKeys("java.home", "user.dir");
+    } finally {
+      System.clearProperty("server.host");
+      System.clearProperty("user.pool.size");
+    }
+  }
+
+  @Test
+  public void splitsUserPoolBetweenWorkers() {
+    UserPool userPool = UserPool.generate("user{0}", "secret{0}", 5, UserPool.Mode.UNIQUE);
+
+    assertThat(userPool.slice(0, 2).size()).isEqualTo(3);
+    assertThat(userPool.slice(1, 2).username(0)).isEqualTo("user2");
+    assertThat(userPool.slice(1, 2).username(1)).isEqualTo("user4");
+  }
+}
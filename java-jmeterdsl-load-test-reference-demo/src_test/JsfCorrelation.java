@@ -0,0 +1,184 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.postprocessors.DslJsr223PostProcessor;
+import us.abstracta.jmeter.javadsl.core.postprocessors.DslJsr223PostProcessor.PostProcessorScript;
+import us.abstracta.jmeter.javadsl.core.postprocessors.DslJsr223PostProcessor.PostProcessorVars;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.jmeter.samplers.SampleResult;
+
+import static us.abstracta.jmeter.javadsl.JmeterDsl.jsr223PostProcessor;
+
+// Extracts the JSF correlation tokens (form action, ViewState, partial response redirect) in a single pass over
+// the raw response bytes. Unlike a chain of regexExtractors it neither decodes the whole page into a String
+// nor rescans it once per token, and it stops reading as soon as every requested token was found.
+public class JsfCorrelation {
+
+  // When true in the JMeter properties, the body is dropped after extraction so large pages are not kept per sample
+  public static final String DISCARD_BODY_PROPERTY = "correlation.discard.body";
+
+  private static final byte[] NO_BODY = new byte[0];
+
+  public enum Token {
+    // same values as the former regexExtractors: action="([^"]+)", the ViewState value including its quotes
+    // and <redirect url="([^"]+)">
+    URL("url", "action=\"", '"', false),
+    VIEW_STATE("viewState", "id=\"j_id__v_0:javax.faces.ViewState:1\" value=", '"', true),
+    REDIRECT_URL("redirectURL", "<redirect url=\"", '"', false);
+
+    private final String variable;
+    private final byte[] prefix;
+    private final byte end;
+    private final boolean quoted;
+
+    Token(String variable, String prefix, char end, boolean quoted) {
+      this.variable = variable;
+      this.prefix = prefix.getBytes(StandardCharsets.US_ASCII);
+      this.end = (byte) end;
+      this.quoted = quoted;
+    }
+
+    public String variable() {
+      return variable;
+    }
+  }
+
+  // Form action and ViewState of a full page
+  public static DslJsr223PostProcessor pageTokens() {
+    return jsr223PostProcessor("JSF correlation", PageTokens.class);
+  }
+
+  // Redirect target of an ajax partial response
+  public static DslJsr223PostProcessor redirectUrl() {
+    return jsr223PostProcessor("JSF correlation", RedirectUrl.class);
+  }
+
+  // Script classes rather than lambdas: remote JMeter workers instantiate them by name (see JmeterWorker).
+  // Like the regexExtractors they replace, a token missing from the response leaves its variable unchanged.
+  public abstract static class Extractor implements PostProcessorScript {
+
+    private final Set<Token> wanted;
+
+    protected Extractor(Token first, Token... rest) {
+      wanted = EnumSet.of(first, rest);
+    }
+
+    @Override
+    public void runScript(PostProcessorVars vars) {
+      SampleResult result = vars.prev;
+      extract(result.getResponseData(), Charset.forName(result.getDataEncodingWithDefault()), wanted)
+        .forEach((token, value) -> vars.vars.put(token.variable, value));
+      if (Boolean.parseBoolean(vars.props.getProperty(DISCARD_BODY_PROPERTY))) {
+        result.setResponseData(NO_BODY);
+      }
+    }
+  }
+
+  public static class PageTokens extends Extractor {
+
+    public PageTokens() {
+      super(Token.URL, Token.VIEW_STATE);
+    }
+  }
+
+  public static class RedirectUrl extends Extractor {
+
+    public RedirectUrl() {
+      super(Token.REDIRECT_URL);
+    }
+  }
+
+  // First occurrence of each wanted token in one left to right pass. The pass skips ahead Horspool style:
+  // the byte at the end of the current window tells how far the next possible token start is.
+  static Map<Token, String> extract(byte[] body, Charset charset, Set<Token> wanted) {
+    Map<Token, String> values = new EnumMap<>(Token.class);
+    List<Token> pending = new ArrayList<>(wanted);
+    int window = windowOf(pending);
+    int[] shifts = shiftsOf(pending, window);
+    int i = 0;
+    while (!pending.isEmpty() && i + window <= body.length) {
+      Token found = null;
+      for (Token token : pending) {
+        if (startsWith(body, i, token.prefix)) {
+          String value = valueAt(body, i + token.prefix.length, token, charset);
+          if (value != null) {
+            values.put(token, value);
+            found = token;
+            break;
+          }
+        }
+      }
+      if (found == null) {
+        i += shifts[body[i + window - 1] & 0xFF];
+      } else if (pending.remove(found) && !pending.isEmpty()) {
+        window = windowOf(pending);
+        shifts = shiftsOf(pending, window);
+      }
+    }
+    return values;
+  }
+
+  private static int windowOf(List<Token> tokens) {
+    return tokens.stream().mapToInt(token -> token.prefix.length).min().orElse(1);
+  }
+
+  // Distance from the window end byte to the next position where any token prefix could start
+  private static int[] shiftsOf(List<Token> tokens, int window) {
+    int[] shifts = new int[256];
+    Arrays.fill(shifts, window);
+    for (Token token : tokens) {
+      for (int j = 0; j < window - 1; j++) {
+        int b = token.prefix[j] & 0xFF;
+        shifts[b] = Math.min(shifts[b], window - 1 - j);
+      }
+    }
+    return shifts;
+  }
+
+  private static boolean startsWith(byte[] body, int offset, byte[] prefix) {
+    if (offset + prefix.length > body.length) {
+      return false;
+    }
+    for (int i = prefix.length - 1; i >= 0; i--) {
+      if (body[offset + i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Unquoted tokens end at the next quote and must not be empty, the quoted ViewState is a single quoted
+  // value without whitespace, as matched by ("[\S]+")
+  private static String valueAt(byte[] body, int start, Token token, Charset charset) {
+    if (token.quoted) {
+      if (start >= body.length || body[start] != '"') {
+        return null;
+      }
+      for (int i = start + 1; i < body.length && !isWhitespace(body[i]); i++) {
+        if (body[i] == token.end && i > start + 1) {
+          return new String(body, start, i + 1 - start, charset);
+        }
+      }
+      return null;
+    }
+    for (int i = start; i < body.length; i++) {
+      if (body[i] == token.end) {
+        return i == start ? null : new String(body, start, i - start, charset);
+      }
+    }
+    return null;
+  }
+
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f' || b == 0x0B;
+  }
+}
@@ -0,0 +1,129 @@
+package com.axonivy;
+
+import com.axonivy.JsfCorrelation.Token;
+import us.abstracta.jmeter.javadsl.core.engines.JmeterEnvironment;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.jmeter.extractor.RegexExtractor;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsfCorrelationTest {
+
+  // the regexExtractors PortalScenario used before JsfCorrelation
+  private static final Map<Token, String> REGEXES = Map.of(
+    Token.URL, "action=\"([^\"]+)\"",
+    Token.VIEW_STATE, "id=\"j_id__v_0:javax.faces.ViewState:1\" value=(\"[\\S]+\")",
+    Token.REDIRECT_URL, "<redirect url=\"([^\"]+)\">");
+
+  private static final String ACTION = "/ivy/faces/pro/portal/1549F58C18A6C562/DefaultApplicationHomePage.xhtml;jsessionid=8C1A";
+  private static final String VIEW_STATE = "-4411953394712368219:2178716585338466931";
+
+  @BeforeAll
+  public static void setUpJmeter() throws Exception {
+    // RegexExtractor needs the JMeter properties the embedded engine normally loads
+    new JmeterEnvironment();
+  }
+
+  @Test
+  public void extractsSameTokensAsRegexExtractors() {
+    String page = PortalPages.page("Portal", ACTION, VIEW_STATE, 200_000);
+    assertThat(extract(page, EnumSet.of(Token.URL, Token.VIEW_STATE)))
+      .isEqualTo(regexExtract(PortalPages.bytes(page), List.of(Token.URL, Token.VIEW_STATE)))
+      .containsEntry(Token.VIEW_STATE, "\"" + VIEW_STATE + "\"");
+
+    String redirect = PortalPages.redirect("/ivy/faces/pro/portal/TaskList.xhtml?taskId=12&amp;x=1");
+    assertThat(extract(redirect, EnumSet.of(Token.REDIRECT_URL)))
+      .isEqualTo(regexExtract(PortalPages.bytes(redirect), List.of(Token.REDIRECT_URL)))
+      .containsEntry(Token.REDIRECT_URL, "/ivy/faces/pro/portal/TaskList.xhtml?taskId=12&amp;x=1");
+  }
+
+  @Test
+  public void skipsEmptyValuesAndToleratesMissingTokens() {
+    String html = "<form action=\"\"><form action=\"/second\">"
+      + "<input id=\"j_id__v_0:javax.faces.ViewState:1\" value=\"state\"/>";
+    assertThat(extract(html, EnumSet.allOf(Token.class)))
+      .containsExactlyInAnyOrderEntriesOf(Map.of(Token.URL, "/second", Token.VIEW_STATE, "\"state\""));
+  }
+
+  // CPU per sample of both approaches, e.g. mvn test -Dtest=JsfCorrelationTest -Dbenchmark=true
+  @Test
+  @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+  public void benchmarkAgainstRegexExtractors() {
+    String page = PortalPages.page("Portal", ACTION, VIEW_STATE, 300_000);
+    byte[] body = PortalPages.bytes(page);
+    Set<Token> tokens = EnumSet.of(Token.URL, Token.VIEW_STATE);
+    List<Token> tokenList = List.copyOf(tokens);
+    int samples = 500;
+
+    for (int i = 0; i < samples; i++) {
+      regexExtract(body, tokenList);
+      JsfCorrelation.extract(body, StandardCharsets.UTF_8, tokens);
+    }
+    long regexNanos = cpuNanos(() -> {
+      for (int i = 0; i < samples; i++) {
+        regexExtract(body, tokenList);
+      }
+    });
+    long correlationNanos = cpuNanos(() -> {
+      for (int i = 0; i < samples; i++) {
+        JsfCorrelation.extract(body, StandardCharsets.UTF_8, tokens);
+      }
+    });
+
+    System.out.printf("%d KB page, CPU per sample: regex extractors %d us, JsfCorrelation %d us%n",
+      body.length / 1024, regexNanos / samples / 1000, correlationNanos / samples / 1000);
+    assertThat(correlationNanos).isLessThan(regexNanos);
+  }
+
+  private static Map<Token, String> extract(String response, Set<Token> tokens) {
+    return JsfCorrelation.extract(PortalPages.bytes(response), StandardCharsets.UTF_8, tokens);
+  }
+
+  // Runs the JMeter RegexExtractor elements the same way a sampler's post processors do
+  private static Map<Token, String> regexExtract(byte[] body, List<Token> tokens) {
+    SampleResult result = new SampleResult();
+    result.setResponseData(body);
+    result.setDataEncoding(StandardCharsets.UTF_8.name());
+    JMeterVariables variables = new JMeterVariables();
+    JMeterContextService.getContext().setVariables(variables);
+    JMeterContextService.getContext().setPreviousResult(result);
+    for (Token token : tokens) {
+      RegexExtractor extractor = new RegexExtractor();
+      extractor.setRefName(token.variable());
+      extractor.setRegex(REGEXES.get(token));
+      extractor.setTemplate("$1$");
+      extractor.setMatchNumber(1);
+      extractor.setThreadContext(JMeterContextService.getContext());
+      extractor.process();
+    }
+    Map<Token, String> values = new EnumMap<>(Token.class);
+    tokens.forEach(token -> {
+      if (variables.get(token.variable()) != null) {
+        values.put(token, variables.get(token.variable()));
+      }
+    });
+    return values;
+  }
+
+  private static long cpuNanos(Runnable work) {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    long start = threads.getCurrentThreadCpuTime();
+    work.run();
+    return threads.getCurrentThreadCpuTime() - start;
+  }
+}
@@ -0,0 +1,211 @@
+package com.axonivy;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Streams a CSV JTL (as written by jtlWriter) or a BinaryJtl once and keeps one LatencyHistogram per sampler label,
+// so even multi GB result files are summarized in constant memory.
+public class JtlAnalyzer {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  public record LabelSummary(String label, LatencyHistogram histogram, long errors) {
+
+    public long samples() {
+      return histogram.count();
+    }
+
+    public double errorRate() {
+      return samples() == 0 ? 0 : (double) errors / samples() * 100;
+    }
+  }
+
+  public static Map<String, LabelSummary> analyze(Path jtl) throws IOException {
+    if (BinaryJtl.isBinary(jtl)) {
+      return analyzeBinary(jtl);
+    }
+    try (Reader reader = Files.newBufferedReader(jtl, StandardCharsets.UTF_8)) {
+      return analyze(reader, jtl.toString());
+    }
+  }
+
+  static Map<String, LabelSummary> analyze(Reader reader, String source) throws IOException {
+    CsvRecordReader records = new CsvRecordReader(reader);
+    List<String> header = records.readHeader();
+    int elapsed = columnOf(header, "elapsed", source);
+    int label = columnOf(header, "label", source);
+    int success = columnOf(header, "success", source);
+    records.keepColumns(elapsed, label, success);
+
+    Map<String, LatencyHistogram> histograms = new TreeMap<>();
+    Map<String, long[]> errors = new TreeMap<>();
+    while (records.next()) {
+      String name = records.field(label);
+      // blank or truncated line, e.g. the last one of a JTL that is still being written
+      if (name == null || records.field(elapsed) == null || records.field(success) == null) {
+        continue;
+      }
+      histograms.computeIfAbsent(name, key -> new LatencyHistogram()).record(Long.parseLong(records.field(elapsed)));
+      long[] labelErrors = errors.computeIfAbsent(name, key -> new long[1]);
+      if (!"true".equals(records.field(success))) {
+        labelErrors[0]++;
+      }
+    }
+
+    return summaries(histograms, errors);
+  }
+
+  private static Map<String, LabelSummary> analyzeBinary(Path jtl) throws IOException {
+    Map<String, LatencyHistogram> histograms = new TreeMap<>();
+    Map<String, long[]> errors = new TreeMap<>();
+    BinaryJtl.read(jtl, sample -> {
+      histograms.computeIfAbsent(sample.label(), key -> new LatencyHistogram()).record(sample.elapsed());
+      long[] labelErrors = errors.computeIfAbsent(sample.label(), key -> new long[1]);
+      if (!sample.success()) {
+        labelErrors[0]++;
+      }
+    });
+    return summaries(histograms, errors);
+  }
+
+  private static Map<String, LabelSummary> summaries(Map<String, LatencyHistogram> histograms, Map<String, long[]> errors) {
+    Map<String, LabelSummary> summaries = new TreeMap<>();
+    histograms.forEach((name, histogram) -> summaries.put(name, new LabelSummary(name, histogram, errors.get(name)[0])));
+    return summaries;
+  }
+
+  private static int columnOf(List<String> header, String column, String source) {
+    int index = header.indexOf(column);
+    if (index < 0) {
+      throw new IllegalArgumentException(source + " has no '" + column + "' column, only CSV JTL files with field names are supported");
+    }
+    return index;
+  }
+
+  // Minimal RFC 4180 reader: quoted fields may hold separators, escaped quotes ("") and line breaks.
+  // Only the kept columns are turned into strings, the others are skipped while scanning.
+  private static class CsvRecordReader {
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private final StringBuilder field = new StringBuilder();
+    private String[] values = new String[0];
+    private boolean[] kept = new boolean[0];
+    private int pending = -2;
+
+    CsvRecordReader(Reader reader) {
+      this.reader = reader;
+    }
+
+    List<String> readHeader() throws IOException {
+      kept = null;
+      if (!next()) {
+        return List.of();
+      }
+      return Arrays.asList(values.clone());
+    }
+
+    void keepColumns(int... columns) {
+      int size = Arrays.stream(columns).max().orElse(0) + 1;
+      kept = new boolean[size];
+      values = new String[size];
+      for (int column : columns) {
+        kept[column] = true;
+      }
+    }
+
+    String field(int column) {
+      return values[column];
+    }
+
+    // Header mode (kept == null) stores every column, data mode only the kept ones
+    boolean next() throws IOException {
+      int c = read();
+      if (c == -1) {
+        return false;
+      }
+      List<String> header = kept == null ? new ArrayList<>() : null;
+      if (header == null) {
+        Arrays.fill(values, null);
+      }
+      int column = 0;
+      boolean quoted = false;
+      field.setLength(0);
+      while (true) {
+        if (quoted) {
+          if (c == -1) {
+            throw new IOException("Unterminated quoted field in JTL");
+          }
+          if (c == '"') {
+            int next = read();
+            if (next == '"') {
+              field.append('"');
+            } else {
+              quoted = false;
+              c = next;
+              continue;
+            }
+          } else {
+            field.append((char) c);
+          }
+        } else if (c == '"') {
+          quoted = true;
+        } else if (c == ',' || c == '\n' || c == '\r' || c == -1) {
+          store(header, column++);
+          field.setLength(0);
+          if (c != ',') {
+            if (c == '\r') {
+              int next = read();
+              if (next != '\n') {
+                pending = next;
+              }
+            }
+            break;
+          }
+        } else {
+          field.append((char) c);
+        }
+        c = read();
+      }
+      if (header != null) {
+        values = header.toArray(new String[0]);
+      }
+      return true;
+    }
+
+    private void store(List<String> header, int column) {
+      if (header != null) {
+        header.add(field.toString());
+      } else if (column < kept.length && kept[column]) {
+        values[column] = field.toString();
+      }
+    }
+
+    private int read() throws IOException {
+      if (pending != -2) {
+        int c = pending;
+        pending = -2;
+        return c;
+      }
+      if (position == limit) {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+          limit = 0;
+          return -1;
+        }
+      }
+      return buffer[position++];
+    }
+  }
+}
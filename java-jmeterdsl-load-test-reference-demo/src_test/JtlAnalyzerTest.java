@@ -0,0 +1,82 @@
+package com.axonivy;
+
+import com.axonivy.JtlAnalyzer.LabelSummary;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class JtlAnalyzerTest {
+
+  private static final String HEADER = "timeStamp,elapsed,label,responseCode,responseMessage,threadName,dataType,success,failureMessage,bytes,sentBytes,grpThreads,allThreads,URL,Latency,IdleTime,Connect\n";
+
+  @Test
+  public void readsQuotedAndMultiLineFields() throws IOException {
+    String jtl = HEADER
+      + "1700000000000,120,\"Login, \"\"admin\"\"\",200,OK,Portal 1-1,text,true,,10,0,1,1,null,0,0,0\n"
+      + "1700000000100,480,PortalHome,500,\"Internal\nError\",Portal 1-1,text,false,\"Test failed\",10,0,1,1,null,0,0,0\r\n"
+      + "1700000000200,80,PortalHome,200,OK,Portal 1-1,text,true,,10,0,1,1,null,0,0,0\n"
+      + "\n";
+
+    Map<String, LabelSummary> summaries = JtlAnalyzer.analyze(new StringReader(jtl), "test.jtl");
+
+    assertThat(summaries).containsOnlyKeys("Login, \"admin\"", "PortalHome");
+    assertThat(summaries.get("PortalHome").samples()).isEqualTo(2);
+    assertThat(summaries.get("PortalHome").errors()).isEqualTo(1);
+    assertThat(summaries.get("PortalHome").histogram().max()).isEqualTo(480);
+  }
+
+  @Test
+  public void histogramPercentilesStayWithinBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long millis = 1; millis <= 100_000; millis++) {
+      histogram.record(millis);
+    }
+
+    assertThat((double) histogram.percentile(50)).isCloseTo(50_000, within(50_000 * 0.016));
+    assertThat((double) histogram.percentile(99)).isCloseTo(99_000, within(99_000 * 0.016));
+    assertThat(histogram.percentile(100)).isEqualTo(100_000);
+    assertThat(histogram.mean()).isCloseTo(50_000.5, within(0.001));
+  }
+
+  @Test
+  public void detectsShiftedDistributionOnly() {
+    RegressionDetector detector = new RegressionDetector(90, 10, 0.01, 30);
+    Map<String, LabelSummary> baseline = Map.of("PortalTaskList", summary("PortalTaskList", 200, 1000, 0, 1));
+    Map<String, LabelSummary> sameRun = Map.of("PortalTaskList", summary("PortalTaskList", 200, 1000, 0, 2));
+    Map<String, LabelSummary> slowerRun = Map.of("PortalTaskList", summary("PortalTaskList", 300, 1000, 0, 3));
+    Map<String, LabelSummary> failingRun = Map.of("PortalTaskList", summary("PortalTaskList", 200, 1000, 100, 4));
+
+    assertThat(detector.compare(baseline, sameRun).hasRegression()).isFalse();
+    assertThat(detector.compare(baseline, slowerRun).hasRegression()).isTrue();
+    assertThat(detector.compare(baseline, failingRun).hasRegression()).isTrue();
+  }
+
+  @Test
+  public void reportsTooSmallRunsAsInconclusive() {
+    RegressionDetector detector = new RegressionDetector(90, 10, 0.01, 30);
+
+    RegressionDetector.Report report = detector.compare(
+      Map.of("Login", summary("Login", 100, 1, 0, 5)),
+      Map.of("Login", summary("Login", 900, 1, 0, 6), "Logout", summary("Logout", 50, 1, 0, 7)));
+
+    assertThat(report.comparisons()).extracting(RegressionDetector.Comparison::verdict)
+      .containsExactly(RegressionDetector.Verdict.INCONCLUSIVE, RegressionDetector.Verdict.NEW);
+    assertThat(report.hasRegression()).isFalse();
+  }
+
+  private static LabelSummary summary(String label, double meanMillis, int samples, int errors, long seed) {
+    Random random = new Random(seed);
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < samples; i++) {
+      histogram.record(Math.round(meanMillis + random.nextGaussian() * meanMillis / 10));
+    }
+    return new LabelSummary(label, histogram, errors);
+  }
+}
@@ -0,0 +1,92 @@
+package com.axonivy;
+
+// Fixed size latency histogram in milliseconds: values below 128 ms are exact, larger values fall into
+// 64 linear sub-buckets per power of two, so any percentile is within ~1.6% of the real value and memory
+// stays the same whether a run has a thousand samples or a billion.
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int EXACT_LIMIT = SUB_BUCKETS * 2;
+  private static final int BUCKET_COUNT = EXACT_LIMIT + (Long.SIZE - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+  private final long[] counts = new long[BUCKET_COUNT];
+  private long totalCount;
+  private long totalMillis;
+  private long max;
+
+  public void record(long millis) {
+    long value = Math.max(0, millis);
+    counts[indexOf(value)]++;
+    totalCount++;
+    totalMillis += value;
+    max = Math.max(max, value);
+  }
+
+  public void add(LatencyHistogram other) {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i] += other.counts[i];
+    }
+    totalCount += other.totalCount;
+    totalMillis += other.totalMillis;
+    max = Math.max(max, other.max);
+  }
+
+  public long count() {
+    return totalCount;
+  }
+
+  public double mean() {
+    return totalCount == 0 ? 0 : (double) totalMillis / totalCount;
+  }
+
+  public long max() {
+    return max;
+  }
+
+  // Upper bound of the bucket holding the requested percentile (0-100)
+  public long percentile(double percentile) {
+    if (totalCount == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(upperBoundOf(i), max);
+      }
+    }
+    return max;
+  }
+
+  int bucketCount() {
+    return BUCKET_COUNT;
+  }
+
+  long countAt(int index) {
+    return counts[index];
+  }
+
+  static int indexOf(long value) {
+    if (value < EXACT_LIMIT) {
+      return (int) value;
+    }
+    int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1;
+    return EXACT_LIMIT + (shift - 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+  }
+
+  static long upperBoundOf(int index) {
+    if (index < EXACT_LIMIT) {
+      return index;
+    }
+    int shift = (index - EXACT_LIMIT) / SUB_BUCKETS + 1;
+    long subBucket = (index - EXACT_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+    return ((subBucket + 1) << shift) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("count=%d mean=%.1f p50=%d p90=%d p99=%d max=%d", totalCount, mean(), percentile(50), percentile(90), percentile(99), max);
+  }
+}
@@ -0,0 +1,231 @@
+package com.axonivy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import us.abstracta.jmeter.javadsl.core.BuildTreeContext;
+import us.abstracta.jmeter.javadsl.core.listeners.DslListener;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import org.apache.jmeter.engine.util.NoThreadClone;
+import org.apache.jmeter.samplers.Remoteable;
+import org.apache.jmeter.samplers.SampleEvent;
+import org.apache.jmeter.samplers.SampleListener;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jorphan.collections.HashTree;
+
+// Live view of a running plan, scraped in Prometheus text format from http://<host>:<metrics.port>/metrics:
+// samples, errors and a latency histogram per sampler plus the active threads of every injector.
+// Memory is fixed: per sampler a few counters and one cumulative bucket array, at most metrics.max.labels samplers
+// (later labels are counted as "other"). Samples only touch LongAdders, so thousands of threads do not contend.
+public class LiveMetrics implements AutoCloseable {
+
+  public static final String PORT_KEY = "metrics.port";
+  public static final String MAX_LABELS_KEY = "metrics.max.labels";
+
+  static final String OTHER_LABEL = "other";
+  // upper bounds of the latency buckets, a last +Inf bucket holds everything slower
+  private static final long[] BUCKET_MILLIS = {5, 10, 25, 50, 75, 100, 150, 250, 400, 600, 1000, 1500, 2500, 4000, 6000, 10000, 15000, 30000, 60000};
+
+  private final int maxLabels;
+  private final Map<String, SamplerMetrics> samplers = new ConcurrentHashMap<>();
+  private final Map<String, Integer> threadsByHost = new ConcurrentHashMap<>();
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private final HttpServer server;
+
+  private static class SamplerMetrics {
+
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder totalMillis = new LongAdder();
+    private final LongAdder[] buckets = new LongAdder[BUCKET_MILLIS.length + 1];
+
+    private SamplerMetrics() {
+      for (int i = 0; i < buckets.length; i++) {
+        buckets[i] = new LongAdder();
+      }
+    }
+
+    private void record(SampleResult result) {
+      long millis = Math.max(0, result.getTime());
+      samples.increment();
+      if (!result.isSuccessful()) {
+        errors.increment();
+      }
+      bytes.add(result.getBytesAsLong());
+      totalMillis.add(millis);
+      buckets[bucketOf(millis)].increment();
+    }
+  }
+
+  // Remoteable like ResultCollector: in distributed runs it stays in this JVM and remote workers stream samples to it.
+  // NoThreadClone keeps JMeter from replacing it with a copy that has lost the metrics.
+  private static class Collector extends AbstractTestElement implements SampleListener, Remoteable, NoThreadClone {
+
+    private final transient LiveMetrics metrics;
+
+    private Collector(LiveMetrics metrics) {
+      this.metrics = metrics;
+    }
+
+    // a distributed run clones the plan before it starts the remote engines, the clone has to stay this instance
+    @Override
+    public Object clone() {
+      return this;
+    }
+
+    @Override
+    public void sampleOccurred(SampleEvent event) {
+      metrics.record(event.getHostname(), event.getResult());
+    }
+
+    @Override
+    public void sampleStarted(SampleEvent event) {
+    }
+
+    @Override
+    public void sampleStopped(SampleEvent event) {
+    }
+  }
+
+  // port 0 picks a free port
+  public LiveMetrics(int port, int maxLabels) throws IOException {
+    this.maxLabels = maxLabels;
+    server = HttpServer.create(new InetSocketAddress(port), 16);
+    server.createContext("/metrics", this::serve);
+    server.setExecutor(executor);
+  }
+
+  // Enabled by setting metrics.port, e.g. -Dmetrics.port=9270
+  public static boolean isConfigured(TestProperties properties) {
+    return properties.get(PORT_KEY, null) != null;
+  }
+
+  public static LiveMetrics fromProperties(TestProperties properties) throws IOException {
+    return new LiveMetrics(properties.getInt(PORT_KEY, 9270), properties.getInt(MAX_LABELS_KEY, 200));
+  }
+
+  public LiveMetrics start() {
+    server.start();
+    return this;
+  }
+
+  public int port() {
+    return server.getAddress().getPort();
+  }
+
+  // Test plan level listener feeding these metrics
+  public DslListener listener() {
+    Collector collector = new Collector(this);
+    return new DslListener() {
+
+      @Override
+      public HashTree buildTreeUnder(HashTree parent, BuildTreeContext context) {
+        return parent.add(collector);
+      }
+
+      @Override
+      public void showInGui() {
+      }
+    };
+  }
+
+  void record(String host, SampleResult result) {
+    samplerMetrics(result.getSampleLabel()).record(result);
+    String injector = host == null ? "" : host;
+    Integer threads = result.getAllThreads();
+    // lock-free read first, writes only happen when the thread count changes
+    if (!threads.equals(threadsByHost.get(injector))) {
+      threadsByHost.put(injector, threads);
+    }
+  }
+
+  private SamplerMetrics samplerMetrics(String label) {
+    SamplerMetrics metrics = samplers.get(label);
+    if (metrics != null) {
+      return metrics;
+    }
+    // the bound is checked without locking, so it may be exceeded by a few labels created concurrently
+    return samplers.computeIfAbsent(samplers.size() < maxLabels ? label : OTHER_LABEL, key -> new SamplerMetrics());
+  }
+
+  private static int bucketOf(long millis) {
+    for (int i = 0; i < BUCKET_MILLIS.length; i++) {
+      if (millis <= BUCKET_MILLIS[i]) {
+        return i;
+      }
+    }
+    return BUCKET_MILLIS.length;
+  }
+
+  // Prometheus text exposition format 0.0.4
+  public String scrape() {
+    Map<String, SamplerMetrics> sorted = new TreeMap<>(samplers);
+    StringBuilder text = new StringBuilder();
+    counter(text, "jmeter_samples_total", "Completed samples", sorted, metrics -> metrics.samples.sum());
+    counter(text, "jmeter_errors_total", "Failed samples", sorted, metrics -> metrics.errors.sum());
+    counter(text, "jmeter_received_bytes_total", "Response bytes received", sorted, metrics -> metrics.bytes.sum());
+
+    text.append("# HELP jmeter_sample_duration_seconds Sample response time\n")
+      .append("# TYPE jmeter_sample_duration_seconds histogram\n");
+    sorted.forEach((label, metrics) -> {
+      long cumulative = 0;
+      for (int i = 0; i < metrics.buckets.length; i++) {
+        cumulative += metrics.buckets[i].sum();
+        String upperBound = i < BUCKET_MILLIS.length ? seconds(BUCKET_MILLIS[i]) : "+Inf";
+        text.append("jmeter_sample_duration_seconds_bucket{label=\"").append(escape(label)).append("\",le=\"").append(upperBound)
+          .append("\"} ").append(cumulative).append('\n');
+      }
+      text.append("jmeter_sample_duration_seconds_sum{label=\"").append(escape(label)).append("\"} ")
+        .append(seconds(metrics.totalMillis.sum())).append('\n');
+      text.append("jmeter_sample_duration_seconds_count{label=\"").append(escape(label)).append("\"} ")
+        .append(cumulative).append('\n');
+    });
+
+    text.append("# HELP jmeter_active_threads Active threads of all injectors\n")
+      .append("# TYPE jmeter_active_threads gauge\n")
+      .append("jmeter_active_threads ").append(threadsByHost.values().stream().mapToInt(Integer::intValue).sum()).append('\n');
+    return text.toString();
+  }
+
+  private static void counter(StringBuilder text, String name, String help, Map<String, SamplerMetrics> samplers, ToLongFunction<SamplerMetrics> value) {
+    text.append("# HELP ").append(name).append(' ').append(help).append('\n')
+      .append("# TYPE ").append(name).append(" counter\n");
+    samplers.forEach((label, metrics) -> text.append(name).append("{label=\"").append(escape(label)).append("\"} ")
+      .append(value.applyAsLong(metrics)).append('\n'));
+  }
+
+  private static String seconds(long millis) {
+    return String.valueOf(millis / 1000.0);
+  }
+
+  private static String escape(String label) {
+    return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,75 @@
+package com.axonivy;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+public class LiveMetricsTest {
+
+  @Test
+  public void servesSamplesOfRunningPlan() throws Exception {
+    try (LiveMetrics metrics = new LiveMetrics(0, 10).start()) {
+      testPlan(
+        threadGroup(2, 5,
+          dummySampler("PortalHome", "OK").responseTime(Duration.ofMillis(30)),
+          dummySampler("Login", "OK").successful(false)),
+        metrics.listener()
+      ).run();
+
+      HttpResponse<String> response = HttpClient.newHttpClient().send(
+        HttpRequest.newBuilder(URI.create("http://localhost:" + metrics.port() + "/metrics")).build(),
+        HttpResponse.BodyHandlers.ofString());
+
+      assertThat(response.statusCode()).isEqualTo(200);
+      assertThat(response.body())
+        .contains("jmeter_samples_total{label=\"PortalHome\"} 10")
+        .contains("jmeter_errors_total{label=\"Login\"} 10")
+        .contains("jmeter_errors_total{label=\"PortalHome\"} 0")
+        .contains("jmeter_sample_duration_seconds_bucket{label=\"PortalHome\",le=\"0.025\"} 0")
+        .contains("jmeter_sample_duration_seconds_bucket{label=\"PortalHome\",le=\"0.05\"} 10")
+        .contains("jmeter_sample_duration_seconds_count{label=\"Login\"} 10")
+        .contains("# TYPE jmeter_active_threads gauge");
+    }
+  }
+
+  @Test
+  public void keepsCountsAndLabelsBoundedUnderConcurrency() throws Exception {
+    try (LiveMetrics metrics = new LiveMetrics(0, 3)) {
+      List<Thread> threads = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        threads.add(new Thread(() -> {
+          for (int i = 0; i < 50_000; i++) {
+            SampleResult result = SampleResult.createTestSample(i % 200);
+            result.setSampleLabel("sampler-" + (i % 5));
+            result.setSuccessful(true);
+            metrics.record("injector", result);
+          }
+        }));
+      }
+      threads.forEach(Thread::start);
+      for (Thread thread : threads) {
+        thread.join();
+      }
+
+      String scrape = metrics.scrape();
+      long total = scrape.lines()
+        .filter(line -> line.startsWith("jmeter_samples_total{"))
+        .mapToLong(line -> Long.parseLong(line.substring(line.lastIndexOf(' ') + 1)))
+        .sum();
+      assertThat(total).isEqualTo(8 * 50_000);
+      // at most 3 labels plus "other", give or take labels created concurrently
+      assertThat(scrape.lines().filter(line -> line.startsWith("jmeter_samples_total{")).count()).isBetween(4L, 6L);
+      assertThat(scrape).contains("jmeter_samples_total{label=\"" + LiveMetrics.OTHER_LABEL + "\"}");
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.threadgroups.DslDefaultThreadGroup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Named, multi-stage load shape for the closed-model thread group.
+// Profiles are declared in test.properties as "load.profile.<name>=<users>/<ramp up>/<hold>, ..." where hold is
+// a duration (30s, 2m, 2h) or a number of iterations per user (1x). Iterations are only allowed on a single stage.
+public class LoadProfile {
+
+  public static final String PROFILE_KEY = "load.profile";
+
+  private final String name;
+  private final List<Stage> stages;
+  private final int workers;
+
+  public record Stage(int users, Duration rampUp, Duration holdFor, int holdIterations) {
+  }
+
+  public LoadProfile(String name, List<Stage> stages) {
+    this(name, stages, 1);
+  }
+
+  private LoadProfile(String name, List<Stage> stages, int workers) {
+    if (stages.isEmpty()) {
+      throw new IllegalArgumentException("Load profile " + name + " has no stages");
+    }
+    this.name = name;
+    this.stages = List.copyOf(stages);
+    this.workers = workers;
+  }
+
+  // The original shape of the Portal walkthrough: ramp up once, then each user iterates a fixed number of times
+  public static LoadProfile rampTo(int users, Duration rampUp, int iterations) {
+    return new LoadProfile(users + "_users", List.of(new Stage(users, rampUp, null, iterations)));
+  }
+
+  // Profile selected by load.profile (or -Dload.profile=<name>)
+  public static LoadProfile fromProperties(TestProperties properties) {
+    return fromProperties(properties, properties.get(PROFILE_KEY));
+  }
+
+  public static LoadProfile fromProperties(TestProperties properties, String name) {
+    return parse(name, properties.get(PROFILE_KEY + "." + name));
+  }
+
+  public static LoadProfile parse(String name, String spec) {
+    List<Stage> stages = new ArrayList<>();
+    String[] stageSpecs = spec.split(",");
+    for (String stage : stageSpecs) {
+      String[] parts = stage.trim().split("/");
+      if (parts.length < 2 || parts.length > 3) {
+        throw new IllegalArgumentException("Invalid stage '" + stage.trim() + "' in load profile " + name + ", expected <users>/<ramp up>[/<hold>]");
+      }
+      int users = Integer.parseInt(parts[0].trim());
+      Duration rampUp = TestProperties.parseDuration(parts[1]);
+      String hold = parts.length == 3 ? parts[2].trim() : "";
+      if (hold.endsWith("x")) {
+        if (stageSpecs.length > 1) {
+          throw new IllegalArgumentException("Invalid stage " + (stages.size() + 1) + " '" + stage.trim() + "' in load profile " + name
+            + ", iterations (" + hold + ") only work on a single stage, hold the stages of " + name + " for a duration");
+        }
+        stages.add(new Stage(users, rampUp, null, Integer.parseInt(hold.substring(0, hold.length() - 1))));
+      } else {
+        stages.add(new Stage(users, rampUp, hold.isEmpty() ? null : TestProperties.parseDuration(hold), 0));
+      }
+    }
+    return new LoadProfile(name, stages);
+  }
+
+  // The profile split between the given distributed workers, which all run the same thread group. In a single stage
+  // every worker gets users / workers and the first users % workers of them (by distributed.worker.index) one more.
+  // The DSL only takes fixed user counts for several stages, so there users that do not divide evenly are rounded up
+  // to a multiple of the workers: stages() and maxUsers() of the split profile are the users all workers run together.
+  public LoadProfile perWorker(int workers) {
+    if (workers <= 1) {
+      return this;
+    }
+    if (stages.size() == 1) {
+      return new LoadProfile(name, stages, workers);
+    }
+    List<Stage> totals = new ArrayList<>();
+    for (Stage stage : stages) {
+      int users = (stage.users() + workers - 1) / workers * workers;
+      totals.add(new Stage(users, stage.rampUp(), stage.holdFor(), stage.holdIterations()));
+    }
+    return new LoadProfile(name, totals, workers);
+  }
+
+  // Stages the worker with the given distributed.worker.index runs
+  public List<Stage> workerStages(int index) {
+    List<Stage> shares = new ArrayList<>();
+    for (Stage stage : stages) {
+      int users = stage.users() / workers + (index < stage.users() % workers ? 1 : 0);
+      shares.add(new Stage(users, stage.rampUp(), stage.holdFor(), stage.holdIterations()));
+    }
+    return shares;
+  }
+
+  public DslDefaultThreadGroup applyTo(DslDefaultThreadGroup threadGroup) {
+    for (Stage stage : stages) {
+      if (stage.users() % workers != 0) {
+        // the thread group is built once on the controller, each worker resolves its share when it starts
+        threadGroup.rampTo(workerUsers(stage.users()), String.valueOf(stage.rampUp().toSeconds()));
+      } else {
+        threadGroup.rampTo(stage.users() / workers, stage.rampUp());
+      }
+      if (stage.holdIterations() > 0) {
+        threadGroup.holdIterating(stage.holdIterations());
+      } else if (stage.holdFor() != null) {
+        threadGroup.holdFor(stage.holdFor());
+      }
+    }
+    return threadGroup;
+  }
+
+  private String workerUsers(int users) {
+    return String.format("${__jexl3(${__P(%s,0)} < %d ? %d : %d)}", JmeterWorkers.INDEX_KEY, users % workers, users / workers + 1, users / workers);
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public List<Stage> stages() {
+    return stages;
+  }
+
+  // Iterations of every user in a single stage iteration profile, 0 when the users run for a duration
+  public int iterations() {
+    return stages.size() == 1 ? stages.get(0).holdIterations() : 0;
+  }
+
+  public int maxUsers() {
+    return stages.stream().mapToInt(Stage::users).max().orElse(0);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s %s", name, stages);
+  }
+}
@@ -0,0 +1,84 @@
+package com.axonivy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+public class LoadProfileTest {
+
+  @Test
+  public void parsesStepProfile() {
+    LoadProfile profile = LoadProfile.parse("step", "10/30s/2m, 50/30s/2m, 200/1m");
+
+    assertThat(profile.stages()).containsExactly(
+      new LoadProfile.Stage(10, Duration.ofSeconds(30), Duration.ofMinutes(2), 0),
+      new LoadProfile.Stage(50, Duration.ofSeconds(30), Duration.ofMinutes(2), 0),
+      new LoadProfile.Stage(200, Duration.ofMinutes(1), null, 0));
+    assertThat(profile.maxUsers()).isEqualTo(200);
+  }
+
+  @Test
+  public void parsesIterationHold() {
+    LoadProfile profile = LoadProfile.parse("smoke", "1/1s/1x");
+
+    assertThat(profile.stages()).isEqualTo(List.of(new LoadProfile.Stage(1, Duration.ofSeconds(1), null, 1)));
+  }
+
+  @Test
+  public void splitsUsersExactlyBetweenWorkers() {
+    LoadProfile profile = LoadProfile.parse("capacity", "10/30s/2m").perWorker(4);
+
+    assertThat(profile.workerStages(0)).containsExactly(new LoadProfile.Stage(3, Duration.ofSeconds(30), Duration.ofMinutes(2), 0));
+    assertThat(IntStream.range(0, 4).map(index -> profile.workerStages(index).get(0).users())).containsExactly(3, 3, 2, 2);
+    assertThat(profile.maxUsers()).isEqualTo(10);
+    assertThatNoException().isThrownBy(() -> profile.applyTo(threadGroup("capacity")).buildThreadGroup());
+  }
+
+  @Test
+  public void roundsUpMultiStageUsersBetweenWorkers() {
+    LoadProfile profile = LoadProfile.parse("step", "10/30s/2m, 1/10s/1m").perWorker(3);
+
+    assertThat(profile.stages()).extracting(LoadProfile.Stage::users).containsExactly(12, 3);
+    assertThat(profile.workerStages(2)).containsExactly(
+      new LoadProfile.Stage(4, Duration.ofSeconds(30), Duration.ofMinutes(2), 0),
+      new LoadProfile.Stage(1, Duration.ofSeconds(10), Duration.ofMinutes(1), 0));
+    assertThatNoException().isThrownBy(() -> profile.applyTo(threadGroup("step")).buildThreadGroup());
+  }
+
+  @Test
+  public void buildsMultiStageThreadGroup() {
+    LoadProfile profile = LoadProfile.parse("spike", "10/10s/1m, 500/5s/1m, 10/5s/2m");
+
+    assertThatNoException().isThrownBy(() -> profile.applyTo(threadGroup("spike")).buildThreadGroup());
+  }
+
+  @Test
+  public void rejectsIterationsOnMultiStageProfile() {
+    assertThatThrownBy(() -> LoadProfile.parse("broken", "10/10s/1x, 50/10s/1x"))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("broken")
+      .hasMessageContaining("stage 1 '10/10s/1x'");
+  }
+
+  @Test
+  public void namesStageWithIterationsInMultiStageProfile() {
+    assertThatThrownBy(() -> LoadProfile.parse("step", "10/30s/2m, 50/30s/3x, 100/30s/2m"))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("load profile step")
+      .hasMessageContaining("stage 2 '50/30s/3x'");
+  }
+
+  @Test
+  public void rejectsMalformedStage() {
+    assertThatThrownBy(() -> LoadProfile.parse("broken", "10"))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("broken");
+  }
+}
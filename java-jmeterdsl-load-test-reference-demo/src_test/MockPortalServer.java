@@ -0,0 +1,282 @@
+package com.axonivy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Embedded stand-in for the Axon Ivy Portal, so the Portal journey runs without an Ivy engine (e.g. in CI).
+// It replays the JSF flow PortalScenario walks through: full pages with a form action and a ViewState per
+// render, ajax posts validated against the session's ViewState, and partial responses with a <redirect url>.
+// Requests are served on virtual threads, so configured latencies do not limit the throughput.
+// Like a servlet container, it drops a session on logout and after mock.portal.session.timeout without requests.
+public class MockPortalServer implements AutoCloseable {
+
+  public static final String ENABLED_KEY = "mock.portal";
+
+  private static final String PREFIX = "mock.portal.";
+  private static final String SESSION_COOKIE = "JSESSIONID";
+  private static final String VIEW_STATE_MARKER = "@@VIEW_STATE@@";
+  private static final String HOME_PAGE = "/1549F58C18A6C562/DefaultApplicationHomePage.ivp";
+
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final String homePagePath;
+  private final Map<String, Page> pages = new HashMap<>();
+  private final Page loginPage;
+  private final Page homePage;
+  private final LongSupplier pageLatency;
+  private final LongSupplier ajaxLatency;
+  private final long sessionTimeoutMillis;
+  private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+  private final AtomicLong lastExpiry = new AtomicLong(System.currentTimeMillis());
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong createdSessions = new AtomicLong();
+  private final AtomicLong logins = new AtomicLong();
+  private final AtomicLong viewStateErrors = new AtomicLong();
+  private final AtomicLong notFound = new AtomicLong();
+
+  // sessions: created over the whole run, openSessions: not yet logged out or expired
+  public record Stats(long requests, long sessions, long openSessions, long logins, long viewStateErrors, long notFound) {
+  }
+
+  // Full page split around its ViewState, so a render only writes the two halves and the session token
+  private record Page(String path, byte[] head, byte[] tail) {
+
+    static Page render(String path, String title, int sizeKb) {
+      String html = PortalPages.page(title, path, VIEW_STATE_MARKER, sizeKb * 1024);
+      int marker = html.indexOf(VIEW_STATE_MARKER);
+      return new Page(path, PortalPages.bytes(html.substring(0, marker)), PortalPages.bytes(html.substring(marker + VIEW_STATE_MARKER.length())));
+    }
+  }
+
+  private static class Session {
+
+    private final String id;
+    private volatile String viewState = "";
+    private volatile boolean loggedIn;
+    private volatile long lastAccess = System.currentTimeMillis();
+
+    Session(String id) {
+      this.id = id;
+    }
+  }
+
+  public MockPortalServer(TestProperties properties) throws IOException {
+    String facesPath = path(properties.get("security.system.name", ""), properties.get("application.name", "designer"), "faces/view/portal");
+    homePagePath = path(properties.get("project.name", "portal")) + HOME_PAGE;
+    int pageKb = properties.getInt(PREFIX + "page.kb", 150);
+    loginPage = Page.render(facesPath + "/login.xhtml", "Login", pageKb / 4);
+    homePage = addPage(Page.render(facesPath + "/home.xhtml", "Portal Home", pageKb));
+    addPage(Page.render(facesPath + "/processes.xhtml", "Processes", pageKb));
+    addPage(Page.render(facesPath + "/task-list.xhtml", "Tasks", pageKb));
+    addPage(Page.render(facesPath + "/case-list.xhtml", "Cases", pageKb));
+    pages.put(loginPage.path(), loginPage);
+    pageLatency = latency(properties.get(PREFIX + "latency.page", "0ms"));
+    ajaxLatency = latency(properties.get(PREFIX + "latency.ajax", "0ms"));
+    sessionTimeoutMillis = properties.getDuration(PREFIX + "session.timeout", Duration.ofMinutes(30)).toMillis();
+    server = HttpServer.create(new InetSocketAddress("localhost", properties.getInt(PREFIX + "port", 0)), 4096);
+    server.createContext("/", this::handle);
+    server.setExecutor(executor);
+  }
+
+  public MockPortalServer start() {
+    server.start();
+    return this;
+  }
+
+  public int port() {
+    return server.getAddress().getPort();
+  }
+
+  // JMeter properties pointing PortalScenario at this server
+  public Map<String, String> jmeterProperties() {
+    return Map.of("server.host", "localhost", "server.port", String.valueOf(port()));
+  }
+
+  public Stats stats() {
+    return new Stats(requests.get(), createdSessions.get(), sessions.size(), logins.get(), viewStateErrors.get(), notFound.get());
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private Page addPage(Page page) {
+    pages.put(page.path(), page);
+    return page;
+  }
+
+  private static String path(String... segments) {
+    StringBuilder path = new StringBuilder();
+    for (String segment : segments) {
+      if (!segment.isBlank()) {
+        path.append('/').append(segment);
+      }
+    }
+    return path.toString();
+  }
+
+  // See DelayDistribution, e.g. "50ms", "uniform 20ms 80ms" or "lognormal 120ms 0.5"
+  static LongSupplier latency(String spec) {
+    return DelayDistribution.parse(spec);
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    requests.incrementAndGet();
+    try (exchange) {
+      String path = exchange.getRequestURI().getPath();
+      Session session = session(exchange);
+      if ("POST".equals(exchange.getRequestMethod())) {
+        Map<String, String> form = form(exchange.getRequestBody());
+        pause(ajaxLatency);
+        ajax(exchange, session, form);
+      } else if (path.endsWith(homePagePath)) {
+        pause(pageLatency);
+        render(exchange, session, session.loggedIn ? homePage : loginPage);
+      } else if (pages.containsKey(path)) {
+        pause(pageLatency);
+        render(exchange, session, session.loggedIn ? pages.get(path) : loginPage);
+      } else {
+        notFound.incrementAndGet();
+        send(exchange, 404, "text/plain", PortalPages.bytes("Not found: " + path));
+      }
+    }
+  }
+
+  private void ajax(HttpExchange exchange, Session session, Map<String, String> form) throws IOException {
+    if (!session.viewState.equals(unquote(form.getOrDefault("javax.faces.ViewState", "")))) {
+      viewStateErrors.incrementAndGet();
+      // what JSF answers to an ajax post with an unknown ViewState: status 200 and an error in the partial response
+      sendPartial(exchange, "<error><error-name>javax.faces.application.ViewExpiredException</error-name></error>");
+      return;
+    }
+    String source = form.getOrDefault("javax.faces.source", "");
+    if (source.equals("login-form:login-command")) {
+      session.loggedIn = !form.getOrDefault("login:login-form:username", "").isEmpty()
+        && !form.getOrDefault("login:login-form:password", "").isEmpty();
+      if (session.loggedIn) {
+        logins.incrementAndGet();
+      }
+      sendPartial(exchange, "<changes><update id=\"login:login-form\"><![CDATA[<div/>]]></update></changes>");
+    } else if (source.equals("logout-setting:logout-menu-item")) {
+      session.loggedIn = false;
+      sessions.remove(session.id);
+      sendPartial(exchange, redirect(loginPage));
+    } else if (form.containsKey("menuKind") && session.loggedIn) {
+      String menuId = form.getOrDefault(source + "_menuid", "");
+      sendPartial(exchange, redirect(menuId.contains("task-list") ? pageNamed("/task-list.xhtml")
+        : menuId.contains("case-list") ? pageNamed("/case-list.xhtml")
+        : "process".equals(form.get("menuKind")) ? pageNamed("/processes.xhtml")
+        : homePage));
+    } else {
+      sendPartial(exchange, redirect(loginPage));
+    }
+  }
+
+  private Page pageNamed(String suffix) {
+    return pages.values().stream().filter(page -> page.path().endsWith(suffix)).findFirst().orElse(homePage);
+  }
+
+  private static String redirect(Page page) {
+    return "<redirect url=\"" + page.path() + "\"></redirect>";
+  }
+
+  private void render(HttpExchange exchange, Session session, Page page) throws IOException {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    session.viewState = random.nextLong() + ":" + random.nextLong();
+    byte[] viewState = PortalPages.bytes(session.viewState);
+    exchange.getResponseHeaders().set("Content-Type", "text/html;charset=UTF-8");
+    exchange.sendResponseHeaders(200, page.head().length + viewState.length + page.tail().length);
+    OutputStream body = exchange.getResponseBody();
+    body.write(page.head());
+    body.write(viewState);
+    body.write(page.tail());
+  }
+
+  private static void sendPartial(HttpExchange exchange, String content) throws IOException {
+    send(exchange, 200, "text/xml;charset=UTF-8",
+      PortalPages.bytes("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<partial-response id=\"j_id__v_0\">" + content + "</partial-response>"));
+  }
+
+  private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", contentType);
+    exchange.sendResponseHeaders(status, body.length);
+    exchange.getResponseBody().write(body);
+  }
+
+  private Session session(HttpExchange exchange) {
+    List<String> cookies = exchange.getRequestHeaders().getOrDefault("Cookie", List.of());
+    for (String header : cookies) {
+      for (String cookie : header.split(";")) {
+        String[] nameAndValue = cookie.trim().split("=", 2);
+        Session session = nameAndValue.length == 2 && nameAndValue[0].equals(SESSION_COOKIE) ? sessions.get(nameAndValue[1]) : null;
+        if (session != null) {
+          session.lastAccess = System.currentTimeMillis();
+          return session;
+        }
+      }
+    }
+    expireIdleSessions();
+    String id = UUID.randomUUID().toString();
+    Session session = new Session(id);
+    sessions.put(id, session);
+    createdSessions.incrementAndGet();
+    exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + id + "; Path=/; HttpOnly");
+    return session;
+  }
+
+  // at most one sweep per second, sessions of threads that stopped without logout would otherwise pile up across runs
+  private void expireIdleSessions() {
+    long now = System.currentTimeMillis();
+    long last = lastExpiry.get();
+    if (now - last >= 1000 && lastExpiry.compareAndSet(last, now)) {
+      sessions.values().removeIf(session -> now - session.lastAccess > sessionTimeoutMillis);
+    }
+  }
+
+  private static Map<String, String> form(InputStream body) throws IOException {
+    Map<String, String> form = new HashMap<>();
+    for (String pair : new String(body.readAllBytes(), StandardCharsets.UTF_8).split("&")) {
+      String[] nameAndValue = pair.split("=", 2);
+      if (nameAndValue.length == 2) {
+        form.put(URLDecoder.decode(nameAndValue[0], StandardCharsets.UTF_8), URLDecoder.decode(nameAndValue[1], StandardCharsets.UTF_8));
+      }
+    }
+    return form;
+  }
+
+  // The ViewState variable keeps the quotes of the HTML attribute, like the regex extractors always did
+  private static String unquote(String value) {
+    return value.length() > 1 && value.startsWith("\"") && value.endsWith("\"") ? value.substring(1, value.length() - 1) : value;
+  }
+
+  private static void pause(LongSupplier latency) {
+    long millis = latency.getAsLong();
+    if (millis > 0) {
+      try {
+        Thread.sleep(Duration.ofMillis(millis));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.axonivy;
+
+import com.axonivy.PortalScenario.RunMode;
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+public class MockPortalServerTest {
+
+  @Test
+  public void servesTheWholeWalkthrough(@TempDir Path tempDir) throws Exception {
+    try (MockPortalServer mockPortal = new MockPortalServer(mockProperties(tempDir)).start()) {
+      UserPool userPool = UserPool.generate("user{0}", "secret{0}", 5, UserPool.Mode.STICKY);
+      TestPlanStats stats = PortalScenario.run(testPlan(
+          PortalScenario.portalThreadGroup("mock", LoadProfile.rampTo(5, Duration.ZERO, 3), userPool.preProcessor())),
+        RunMode.EMBEDDED, mockPortal.jmeterProperties());
+
+      assertThat(stats.overall().errorsCount()).isZero();
+      assertThat(stats.labels()).hasSize(PortalScenario.walkthrough().length);
+      assertThat(stats.overall().samplesCount()).isEqualTo(5 * 3 * PortalScenario.walkthrough().length);
+      MockPortalServer.Stats served = mockPortal.stats();
+      assertThat(served.viewStateErrors()).isZero();
+      assertThat(served.notFound()).isZero();
+      assertThat(served.logins()).isEqualTo(15);
+      assertThat(served.openSessions()).isZero();
+    }
+  }
+
+  @Test
+  public void rejectsPostsWithStaleViewState(@TempDir Path tempDir) throws Exception {
+    try (MockPortalServer mockPortal = new MockPortalServer(mockProperties(tempDir)).start()) {
+      HttpResponse<String> response = HttpClient.newHttpClient().send(
+        HttpRequest.newBuilder(URI.create("http://localhost:" + mockPortal.port() + "/designer/faces/view/portal/login.xhtml"))
+          .header("Content-Type", "application/x-www-form-urlencoded")
+          .POST(HttpRequest.BodyPublishers.ofString("javax.faces.source=login-form%3Alogin-command&javax.faces.ViewState=%22stale%22"))
+          .build(),
+        HttpResponse.BodyHandlers.ofString());
+
+      assertThat(response.statusCode()).isEqualTo(200);
+      assertThat(response.body()).contains("ViewExpiredException");
+      assertThat(mockPortal.stats().viewStateErrors()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void samplesConfiguredLatencies() {
+    assertThat(MockPortalServer.latency("15ms").getAsLong()).isEqualTo(15);
+    long[] uniform = sample(MockPortalServer.latency("uniform 20ms 80ms"));
+    assertThat(Arrays.stream(uniform).min().getAsLong()).isGreaterThanOrEqualTo(20);
+    assertThat(Arrays.stream(uniform).max().getAsLong()).isLessThanOrEqualTo(80);
+    long[] lognormal = sample(MockPortalServer.latency("lognormal 100ms 0.5"));
+    Arrays.sort(lognormal);
+    assertThat(lognormal[lognormal.length / 2]).isBetween(90L, 110L);
+  }
+
+  // Properties of a small mock Portal, shared by the tests running journeys against it
+  static TestProperties mockProperties(Path tempDir, String... lines) throws IOException {
+    Path file = tempDir.resolve("mock.properties");
+    Files.writeString(file, "application.name=designer\nproject.name=portal\nmock.portal.page.kb=20\n" + String.join("\n", lines));
+    return new TestProperties(file.toString());
+  }
+
+  private static long[] sample(LongSupplier latency) {
+    return IntStream.range(0, 10_000).mapToLong(i -> latency.getAsLong()).toArray();
+  }
+}
@@ -0,0 +1,152 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.BuildTreeContext;
+import us.abstracta.jmeter.javadsl.core.timers.DslTimer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+import org.apache.jmeter.samplers.Sampler;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jmeter.testelement.property.JMeterProperty;
+import org.apache.jmeter.testelement.property.PropertyIterator;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.timers.Timer;
+import org.apache.jorphan.collections.HashTree;
+
+// Think times and session pacing of the Portal walkthrough, declared in test.properties:
+//   think.time.<step>=<delay>  pause before the step, any DelayDistribution spec
+//   think.time.default=<delay> pause before every user action (PortalScenario.USER_ACTIONS) without its own think time
+//   pacing.interval=<duration> each virtual user starts a session at this interval, however long the previous one took
+// Without them the walkthrough runs back-to-back, so one virtual user sends far more requests than a real one.
+public class Pacing {
+
+  public static final String THINK_TIME_PREFIX = "think.time.";
+  public static final String DEFAULT_STEP = "default";
+  public static final String INTERVAL_KEY = "pacing.interval";
+
+  private final Map<String, String> thinkTimes;
+  private final Duration interval;
+  private final String intervalStep;
+
+  public Pacing(Map<String, String> thinkTimes, Duration interval) {
+    this(thinkTimes, interval, PortalScenario.SESSION_START);
+  }
+
+  private Pacing(Map<String, String> thinkTimes, Duration interval, String intervalStep) {
+    this.thinkTimes = Map.copyOf(thinkTimes);
+    this.interval = interval;
+    this.intervalStep = intervalStep;
+  }
+
+  public static Pacing fromProperties(TestProperties properties) {
+    Map<String, String> thinkTimes = new TreeMap<>();
+    String defaultThinkTime = properties.get(THINK_TIME_PREFIX + DEFAULT_STEP, null);
+    if (defaultThinkTime != null) {
+      PortalScenario.USER_ACTIONS.forEach(step -> thinkTimes.put(step, defaultThinkTime));
+    }
+    for (String name : properties.names()) {
+      String spec = properties.get(name, null);
+      if (name.startsWith(THINK_TIME_PREFIX) && !name.equals(THINK_TIME_PREFIX + DEFAULT_STEP) && spec != null) {
+        // fail while building the plan rather than in every JMeter thread
+        DelayDistribution.parse(spec);
+        thinkTimes.put(name.substring(THINK_TIME_PREFIX.length()), spec);
+      }
+    }
+    return new Pacing(thinkTimes, properties.getDuration(INTERVAL_KEY, Duration.ZERO));
+  }
+
+  public boolean isConfigured() {
+    return !thinkTimes.isEmpty() || !interval.isZero();
+  }
+
+  public Map<String, String> thinkTimes() {
+    return thinkTimes;
+  }
+
+  public Duration interval() {
+    return interval;
+  }
+
+  // Open model thread groups start sessions at their own rate, only the think times apply there
+  public Pacing withoutInterval() {
+    return new Pacing(thinkTimes, Duration.ZERO, intervalStep);
+  }
+
+  // The interval counts from this step instead of PortalStart, e.g. the first page of the SessionReuse loop
+  public Pacing startingAt(String step) {
+    return new Pacing(thinkTimes, interval, step);
+  }
+
+  // Thread group level timer: JMeter asks it before every sampler, it pauses for the think time of that step
+  public DslTimer timer() {
+    return new DslTimer() {
+
+      @Override
+      public HashTree buildTreeUnder(HashTree parent, BuildTreeContext context) {
+        PacingTimer timer = new PacingTimer();
+        timer.setName("Pacing");
+        thinkTimes.forEach((step, spec) -> timer.setProperty(THINK_TIME_PREFIX + step, spec));
+        timer.setProperty(INTERVAL_KEY, interval.toMillis());
+        timer.setProperty(PacingTimer.SESSION_START_KEY, intervalStep);
+        return parent.add(timer);
+      }
+
+      @Override
+      public void showInGui() {
+      }
+    };
+  }
+
+  // A plain test element with string properties, so remote workers can run it too.
+  // JMeter clones it for every thread, which keeps the session schedule per virtual user.
+  public static class PacingTimer extends AbstractTestElement implements Timer {
+
+    static final String SESSION_START_KEY = "pacing.session.start";
+
+    private transient Map<String, LongSupplier> thinkTimes;
+    private transient long nextSessionStart;
+
+    @Override
+    public long delay() {
+      Sampler sampler = JMeterContextService.getContext().getCurrentSampler();
+      if (sampler == null) {
+        return 0;
+      }
+      long delay = thinkTime(sampler.getName());
+      if (sampler.getName().equals(getPropertyAsString(SESSION_START_KEY))) {
+        delay += sessionStartDelay(System.currentTimeMillis() + delay);
+      }
+      return delay;
+    }
+
+    private long thinkTime(String step) {
+      if (thinkTimes == null) {
+        thinkTimes = new HashMap<>();
+        PropertyIterator properties = propertyIterator();
+        while (properties.hasNext()) {
+          JMeterProperty property = properties.next();
+          if (property.getName().startsWith(THINK_TIME_PREFIX)) {
+            thinkTimes.put(property.getName().substring(THINK_TIME_PREFIX.length()), DelayDistribution.parse(property.getStringValue()));
+          }
+        }
+      }
+      LongSupplier thinkTime = thinkTimes.get(step);
+      return thinkTime == null ? 0 : thinkTime.getAsLong();
+    }
+
+    // The first session starts right away, the next ones wait for their slot unless the previous session overran it
+    private long sessionStartDelay(long now) {
+      long interval = getPropertyAsLong(INTERVAL_KEY);
+      if (interval <= 0) {
+        return 0;
+      }
+      long delay = nextSessionStart == 0 ? 0 : Math.max(0, nextSessionStart - now);
+      nextSessionStart = now + delay + interval;
+      return delay;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.axonivy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+public class PacingTest {
+
+  @Test
+  public void pausesBeforeConfiguredSteps() throws IOException {
+    Pacing pacing = new Pacing(Map.of("Login", "200ms"), Duration.ZERO);
+
+    List<Long> starts = runSessions(pacing, 2, new SessionMeter(PortalScenario.SESSION_START));
+
+    for (int session = 0; session < 2; session++) {
+      long thinkTime = starts.get(session * 2 + 1) - starts.get(session * 2);
+      assertThat(thinkTime).isBetween(200L, 400L);
+    }
+  }
+
+  @Test
+  public void readsThinkTimesOfSystemProperties(@TempDir Path tempDir) throws IOException {
+    Path file = tempDir.resolve("test.properties");
+    Files.writeString(file, "think.time.Logout=1s\n");
+    System.setProperty("think.time.Login", "200ms");
+    try {
+      Pacing pacing = Pacing.fromProperties(new TestProperties(file.toString()));
+
+      assertThat(pacing.thinkTimes()).containsEntry("Login", "200ms").containsEntry("Logout", "1s");
+    } finally {
+      System.clearProperty("think.time.Login");
+    }
+  }
+
+  @Test
+  public void startsSessionsAtFixedInterval() throws IOException {
+    Pacing pacing = new Pacing(Map.of(), Duration.ofMillis(300));
+    SessionMeter sessionMeter = new SessionMeter(PortalScenario.SESSION_START);
+
+    List<Long> starts = runSessions(pacing, 3, sessionMeter);
+
+    // every session takes ~20 ms, pacing spreads their starts to the interval
+    assertThat(starts.get(2) - starts.get(0)).isBetween(290L, 400L);
+    assertThat(starts.get(4) - starts.get(2)).isBetween(290L, 400L);
+    SessionMeter.Summary summary = sessionMeter.summary();
+    assertThat(summary.sessions()).isEqualTo(3);
+    assertThat(summary.peakSessions()).isEqualTo(1);
+    assertThat(summary.requestsPerSecond()).isBetween(6.0, 12.0);
+  }
+
+  @Test
+  public void pacesIterationsFromGivenStep() throws IOException {
+    Pacing pacing = new Pacing(Map.of(), Duration.ofMillis(300)).startingAt("Login");
+
+    List<Long> starts = runSessions(pacing, 3, new SessionMeter(PortalScenario.SESSION_START));
+
+    assertThat(starts.get(3) - starts.get(1)).isBetween(290L, 400L);
+    assertThat(starts.get(5) - starts.get(3)).isBetween(290L, 400L);
+  }
+
+  @Test
+  public void samplesGaussianAndRecordedDelays(@TempDir Path tempDir) throws IOException {
+    long[] gaussian = sample(DelayDistribution.parse("gaussian 100ms 10ms"));
+    assertThat(LongStream.of(gaussian).average().orElseThrow()).isCloseTo(100, within(2.0));
+    assertThat(LongStream.of(gaussian).min().orElseThrow()).isGreaterThanOrEqualTo(0);
+
+    Path recorded = tempDir.resolve("think-times.txt");
+    Files.writeString(recorded, "# TaskList think times\n150\n2s\n");
+    assertThat(sample(DelayDistribution.parse("recorded " + recorded))).containsOnly(150L, 2000L);
+  }
+
+  // start times of all samples, PortalStart and Login alternating
+  private static List<Long> runSessions(Pacing pacing, int iterations, SessionMeter sessionMeter) throws IOException {
+    List<Long> starts = new CopyOnWriteArrayList<>();
+    testPlan(
+      threadGroup(1, iterations,
+        pacing.timer(),
+        dummySampler(PortalScenario.SESSION_START, "OK").responseTime(Duration.ofMillis(10)).simulateResponseTime(true),
+        dummySampler("Login", "OK").responseTime(Duration.ofMillis(10)).simulateResponseTime(true),
+        jsr223PostProcessor(vars -> starts.add(vars.prev.getStartTime()))),
+      sessionMeter.listener()
+    ).run();
+    return starts;
+  }
+
+  private static long[] sample(LongSupplier delay) {
+    return LongStream.range(0, 10_000).map(i -> delay.getAsLong()).toArray();
+  }
+}
@@ -1,205 +1,339 @@
 package com.axonivy;
 
+import com.axonivy.PortalScenario.RunMode;
+import us.abstracta.jmeter.javadsl.core.DslTestPlan;
 import us.abstracta.jmeter.javadsl.core.TestPlanStats;
-import us.abstracta.jmeter.javadsl.core.engines.EmbeddedJmeterEngine;
+import us.abstracta.jmeter.javadsl.core.threadgroups.BaseThreadGroup;
+import us.abstracta.jmeter.javadsl.core.threadgroups.BaseThreadGroup.ThreadGroupChild;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 
 import static org.junit.jupiter.api.Assertions.fail;
 import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
-import static us.abstracta.jmeter.javadsl.core.assertions.DslResponseAssertion.TargetField;
 
 public class PerformancePortalTest {
 
 
   private String timestamp = java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+  private String jtlDirName = String.format("target/jtls/%s", timestamp);
+  private SlaGate slaGate = SlaGate.load();
+  private MockPortalServer mockPortal;
+  private JmeterWorkers workers;
+  private LiveMetrics liveMetrics;
+  private Map<String, String> runProperties = new HashMap<>();
+  // of the latest run, also of runs the live SLA gate stopped
+  private InjectorMonitor.Report lastInjector;
+
+  // With -Dmock.portal=true every test runs against an embedded MockPortalServer instead of server.host.
+  // With -Ddistributed.local.workers=<n> every test runs on n JMeter worker JVMs started on this machine.
+  // With -Dmetrics.port=<port> the running test can be scraped by Prometheus on http://<host>:<port>/metrics.
+  @BeforeEach
+  public void setUp() throws IOException, InterruptedException {
+    TestProperties properties = TestProperties.load();
+    if (Boolean.parseBoolean(properties.get(MockPortalServer.ENABLED_KEY, "false"))) {
+      mockPortal = new MockPortalServer(properties).start();
+      runProperties.putAll(mockPortal.jmeterProperties());
+      System.out.printf("Mock Portal listening on port %d%n", mockPortal.port());
+    }
+    int localWorkers = properties.getInt(JmeterWorkers.LOCAL_KEY, 0);
+    if (localWorkers > 0) {
+      // workers build the user pool from their own test.properties, so they need the -D overrides of this run too
+      Map<String, String> workerProperties = new HashMap<>(properties.overrides());
+      workerProperties.putAll(runProperties);
+      workers = JmeterWorkers.start(localWorkers, workerProperties, Path.of("target/workers", timestamp));
+      runProperties.putAll(workers.controllerProperties());
+      System.out.printf("JMeter workers listening on %s%n", workers.hosts());
+    }
+    if (LiveMetrics.isConfigured(properties)) {
+      liveMetrics = LiveMetrics.fromProperties(properties).start();
+      System.out.printf("Live metrics on http://localhost:%d/metrics%n", liveMetrics.port());
+    }
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (liveMetrics != null) {
+      liveMetrics.close();
+    }
+    if (workers != null) {
+      workers.close();
+    }
+    if (mockPortal != null) {
+      System.out.printf("Mock Portal served %s%n", mockPortal.stats());
+      mockPortal.close();
+    }
+  }
 
   @Test
   public void testPortalWalkthrough() throws IOException, InterruptedException, TimeoutException {
     // ====================Test one admin user====================
     TestPlanStats stats1User = runPortalTest(1, 1,"1_admin_user", "${__P(one_user.csv)}");
     validateTestResults(stats1User, "1 admin user test");
+    validateAgainstBaseline("1_admin_user");
+  }
+
+  // Runs the profile named by load.profile, e.g. mvn test -Dtest=PerformancePortalTest -Dload.profile=step
+  // With -Dsession.reuse=true every user logs in once and loops the authenticated pages instead
+  @Test
+  @EnabledIfSystemProperty(named = LoadProfile.PROFILE_KEY, matches = ".+")
+  public void testPortalLoadProfile() throws IOException, InterruptedException, TimeoutException {
+    TestProperties properties = TestProperties.load();
+    LoadProfile loadProfile = LoadProfile.fromProperties(properties);
+    TestPlanStats stats;
+    String testName;
+    if (Boolean.parseBoolean(properties.get(SessionReuse.ENABLED_KEY, "false"))) {
+      testName = "reuse_" + loadProfile.name();
+      slaGate.transactions(SessionReuse.TRANSACTIONS);
+      stats = runPortalTest(PortalScenario.portalSessionReuseThreadGroup(testName, perWorker(loadProfile), credentials(),
+        pacing(false, SessionReuse.LOOP_START)), testName);
+      System.out.printf("%s authentication and navigation:%n%s", testName, SessionReuse.report(stats));
+    } else {
+      testName = "profile_" + loadProfile.name();
+      stats = runPortalTest(PortalScenario.portalThreadGroup(testName, perWorker(loadProfile), credentials(), pacing(false)), testName);
+    }
+    validateTestResults(stats, loadProfile.name() + " load profile test");
+    validateAgainstBaseline(testName);
+  }
+
+  // Open model: starts Portal sessions at the rate of arrival.profile, e.g. -Darrival.profile=steady
+  @Test
+  @EnabledIfSystemProperty(named = ArrivalProfile.PROFILE_KEY, matches = ".+")
+  public void testPortalArrivalRate() throws IOException, InterruptedException, TimeoutException {
+    TestProperties properties = TestProperties.load();
+    ArrivalProfile arrivalProfile = ArrivalProfile.fromProperties(properties);
+    ArrivalTracker arrivalTracker = new ArrivalTracker(arrivalProfile,
+      properties.getDuration("arrival.delay.tolerance", Duration.ofSeconds(1)), PortalScenario.SESSION_START);
+    String testName = "arrival_" + arrivalProfile.name();
+
+    int workerCount = workerCount();
+    int maxThreads = properties.getInt("arrival.max.threads", 100);
+    TestPlanStats stats;
+    if (workerCount > 1) {
+      // every worker starts its share of the sessions, a tracker would only count the ones of this JVM
+      stats = runPortalTest(PortalScenario.portalArrivalThreadGroup(testName, arrivalProfile.perWorker(workerCount),
+        (maxThreads + workerCount - 1) / workerCount, credentials(), pacing(true)), testName);
+    } else {
+      stats = runPortalTest(PortalScenario.portalArrivalThreadGroup(testName, arrivalProfile, maxThreads, arrivalTracker, credentials(), pacing(true)), testName);
+      System.out.printf("%s arrivals: %s%n", testName, arrivalTracker.summary());
+    }
+    validateTestResults(stats, arrivalProfile.name() + " arrival rate test");
+    validateAgainstBaseline(testName);
+  }
+
+  // Production traffic shape: journeys of workload.mix picked by weight, e.g. -Dworkload.mix=production -Dload.profile=step
+  @Test
+  @EnabledIfSystemProperty(named = WorkloadMix.MIX_KEY, matches = ".+")
+  public void testPortalWorkloadMix() throws IOException, InterruptedException, TimeoutException {
+    TestProperties properties = TestProperties.load();
+    WorkloadMix mix = WorkloadMix.fromProperties(properties);
+    LoadProfile loadProfile = LoadProfile.fromProperties(properties, properties.get(LoadProfile.PROFILE_KEY, "smoke"));
+    String testName = "mix_" + mix.name();
+    slaGate.transactions(mix.transactions());
+    TestPlanStats stats = runPortalTest(PortalScenario.portalMixThreadGroup(testName, perWorker(loadProfile), mix, credentials(), pacing(false)), testName);
+    System.out.printf("%s by journey and page:%n%s", testName, mix.report(stats));
+    validateTestResults(stats, mix.name() + " workload mix test");
+    validateAgainstBaseline(testName);
+  }
+
+  // Highest load within the SLA, searched in concurrent users (-Dcapacity.search=users) or sessions per second
+  // (-Dcapacity.search=arrivals). The curve of all steps is written to target/capacity.
+  @Test
+  @EnabledIfSystemProperty(named = CapacitySearch.MODE_KEY, matches = "users|arrivals")
+  public void testPortalCapacity() throws IOException, InterruptedException, TimeoutException {
+    TestProperties properties = TestProperties.load();
+    CapacitySearch search = CapacitySearch.fromProperties(properties);
+    String mode = properties.get(CapacitySearch.MODE_KEY);
+    int workerCount = workerCount();
+    int maxThreads = properties.getInt("arrival.max.threads", 100);
+    CapacitySearch.Result result = search.run(slaGate, load -> {
+      String testName = "capacity_" + mode + "_" + load;
+      if (mode.equals("arrivals")) {
+        ArrivalProfile arrivalProfile = new ArrivalProfile(testName, List.of(new ArrivalProfile.Stage(load, search.rampUp(), search.hold())));
+        return runPortalTest(PortalScenario.portalArrivalThreadGroup(testName, arrivalProfile.perWorker(workerCount),
+          (maxThreads + workerCount - 1) / workerCount, credentials(), pacing(true)), testName);
+      }
+      LoadProfile loadProfile = new LoadProfile(testName, List.of(new LoadProfile.Stage(load, search.rampUp(), search.hold(), 0)));
+      return runPortalTest(PortalScenario.portalThreadGroup(testName, perWorker(loadProfile), credentials(), pacing(false)), testName);
+    }, () -> lastInjector);
+    result.writeCsv(Path.of("target/capacity", "capacity_" + mode + ".csv"));
+    System.out.printf("Portal capacity in %s:%n%s", mode, result);
+    if (result.capacity() == 0) {
+      fail(String.format("No load level met the SLA:%n%s", result));
+    }
+  }
+
+  // Shared user pool when user.pool.* is configured, the one_user.csv data set otherwise
+  private ThreadGroupChild credentials() {
+    TestProperties properties = TestProperties.load();
+    if (UserPool.isConfigured(properties)) {
+      UserPool userPool = UserPool.fromProperties(properties);
+      System.out.printf("Using %s user pool of %d users%n", userPool.mode(), userPool.size());
+      return isDistributed() ? UserPool.workerPreProcessor() : userPool.preProcessor();
+    }
+    return PortalScenario.csvCredentials("${__P(one_user.csv)}");
   }
 
   private TestPlanStats runPortalTest(int numberOfUsers, int rampUpPeriod, String testName, String csvFilePath) throws IOException, InterruptedException, TimeoutException {
-    String jtlDirName = String.format("target/jtls/%s", timestamp);
-
-    return testPlan(
-      threadGroup(testName)
-        .rampTo(numberOfUsers,                 // Number of users
-          Duration.ofSeconds(rampUpPeriod))    // Ramp up period
-        .holdIterating(1)                      // portal.thread.loop
-        .children(
-          httpDefaults()
-              .host("${__P(server.host)}")
-              .port(8081),
-          httpCookies(),
-
-          httpHeaders().header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,image/apng,*/*;q=0.8")
-            .header("Accept-Encoding", "gzip, deflate, br")
-            .header("Accept-Language", "en-US,en;q=0.9")
-            .header("Connection", "keep-alive")
-            .header("Upgrade-Insecure-Requests", "1")
-            .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/66.0.3359.139 Safari/537.36"),
-
-          csvDataSet(csvFilePath)
-            .variableNames("username,password")
-            .delimiter(",")
-            .ignoreFirstLine(false),
-
-          httpSampler("PortalStart",
-            "/${__P(security.system.name)}/${__P(application.name)}/pro/${__P(project.name)}/1549F58C18A6C562/DefaultApplicationHomePage.ivp")
-            .method("GET")
-            .children(
-              regexExtractor("url", "action=\"([^\"]+)\""),
-              regexExtractor("viewState", "id=\"j_id__v_0:javax.faces.ViewState:1\" value=(\"[\\S]+\") ")
-            ),
-
-          httpSampler("Login"
-            ,"${url}")
-            .method("POST")
-            .param("javax.faces.partial.ajax", "true")
-            .param("javax.faces.source", "login-form:login-command")
-            .param("javax.faces.partial.execute", "@all")
-            .param("javax.faces.partial.render", "login:login-form")
-            .param("login:login-form:login-command", "login:login-form:login-command")
-            .param("login:login-form:username", "${username}")
-            .param("login:login-form:password", "${password}")
-            .param("login:login-form_SUBMIT", "1")
-            .param("javax.faces.ViewState", "${viewState}")
-            .children(
-              responseAssertion().fieldToTest(TargetField.RESPONSE_CODE).equalsToStrings("200")
-            ),
-
-          httpSampler("PortalHome"
-            ,"/${__P(security.system.name)}/${__P(application.name)}/pro/${__P(project.name)}/1549F58C18A6C562/DefaultApplicationHomePage.ivp")
-            .method("GET")
-            .children(
-              regexExtractor("url", "action=\"([^\"]+)\""),
-              regexExtractor("viewState", "id=\"j_id__v_0:javax.faces.ViewState:1\" value=(\"[\\S]+\") "),
-              responseAssertion().fieldToTest(TargetField.RESPONSE_CODE).equalsToStrings("200")
-            ),
-
-          httpSampler("NavigateToProcesses"
-            ,"${url}")
-            .method("POST")
-            .param("javax.faces.partial.ajax", "true")
-            .param("javax.faces.source", "user-menu-required-login:main-navigator:main-menu")
-            .param("javax.faces.partial.execute", "user-menu-required-login:main-navigator:main-menu")
-            .param("javax.faces.partial.render", "user-menu-required-login:main-navigator:main-menu")
-            .param("user-menu-required-login:main-navigator:main-menu", "user-menu-required-login:main-navigator:main-menu")
-            .param("taskId", "")
-            .param("isWorkingOnATask", "false")
-            .param("menuKind", "process")
-            .param("menuUrl", "")
-            .param("user-menu-required-login:main-navigator:main-menu_menuid", "process_1")
-            .param("javax.faces.ViewState", "${viewState}")
-            .children(
-              regexExtractor("redirectURL", "<redirect url=\"([^\"]+)\">"),
-              responseAssertion().fieldToTest(TargetField.RESPONSE_CODE).equalsToStrings("200")
-            ),
-
-          httpSampler("PortalProcesses"
-            ,"${redirectURL}")
-            .method("GET")
-            .children(
-              regexExtractor("url", "action=\"([^\"]+)\""),
-              regexExtractor("viewState", "id=\"j_id__v_0:javax.faces.ViewState:1\" value=(\"[\\S]+\") "),
-              responseAssertion().fieldToTest(TargetField.RESPONSE_CODE).equalsToStrings("200")
-            ),
-
-          httpSampler("NavigateToTaskList"
-            ,"${url}")
-            .method("POST")
-            .param("javax.faces.partial.ajax", "true")
-            .param("javax.faces.source", "user-menu-required-login:main-navigator:main-menu")
-            .param("javax.faces.partial.execute", "user-menu-required-login:main-navigator:main-menu")
-            .param("javax.faces.partial.render", "user-menu-required-login:main-navigator:main-menu")
-            .param("user-menu-required-login:main-navigator:main-menu", "user-menu-required-login:main-navigator:main-menu")
-            .param("taskId", "")
-            .param("isWorkingOnATask", "false")
-            .param("menuKind", "main_dashboard")
-            .param("menuUrl", "")
-            .param("user-menu-required-login:main-navigator:main-menu_menuid", "_js__default-task-list-dashboard-main-dashboard")
-            .param("javax.faces.ViewState", "${viewState}")
-            .children(
-              regexExtractor("redirectURL", "<redirect url=\"([^\"]+)\">"),
-              responseAssertion().fieldToTest(TargetField.RESPONSE_CODE).equalsToStrings("200")
-            ),
-
-          httpSampler("PortalTaskList"
-            ,"${redirectURL}")
-            .method("GET")
-            .children(
-              regexExtractor("url", "action=\"([^\"]+)\""),
-              regexExtractor("viewState", "id=\"j_id__v_0:javax.faces.ViewState:1\" value=(\"[\\S]+\")"),
-              responseAssertion().fieldToTest(TargetField.RESPONSE_CODE).equalsToStrings("200")
-            ),
-
-
-          httpSampler("NavigateToCaseList"
-            ,"${url}")
-            .method("POST")
-            .param("javax.faces.partial.ajax", "true")
-            .param("javax.faces.source", "user-menu-required-login:main-navigator:main-menu")
-            .param("javax.faces.partial.execute", "user-menu-required-login:main-navigator:main-menu")
-            .param("javax.faces.partial.render", "user-menu-required-login:main-navigator:main-menu")
-            .param("user-menu-required-login:main-navigator:main-menu", "user-menu-required-login:main-navigator:main-menu")
-            .param("taskId", "")
-            .param("isWorkingOnATask", "false")
-            .param("menuKind", "main_dashboard")
-            .param("menuUrl", "")
-            .param("user-menu-required-login:main-navigator:main-menu_menuid", "_js__default-case-list-dashboard-main-dashboard")
-            .param("javax.faces.ViewState", "${viewState}")
-            .children(
-              regexExtractor("redirectURL", "<redirect url=\"([^\"]+)\">"),
-              responseAssertion().fieldToTest(TargetField.RESPONSE_CODE).equalsToStrings("200")
-            ),
-
-          httpSampler("PortalCaseList"
-            ,"${redirectURL}")
-            .method("GET")
-            .children(
-              regexExtractor("url", "action=\"([^\"]+)\""),
-              regexExtractor("viewState", "id=\"j_id__v_0:javax.faces.ViewState:1\" value=(\"[\\S]+\")"),
-              responseAssertion().fieldToTest(TargetField.RESPONSE_CODE).equalsToStrings("200")
-            ),
-
-          httpSampler("Logout"
-            ,"${url}")
-            .method("POST")
-            .param("javax.faces.partial.ajax", "true")
-            .param("javax.faces.source", "logout-setting:logout-menu-item")
-            .param("javax.faces.partial.execute", "@all")
-            .param("logout-setting:logout-menu-item", "logout-setting:logout-menu-item")
-            .param("javax.faces.ViewState", "${viewState}")
-            .children(
-              responseAssertion().fieldToTest(TargetField.RESPONSE_CODE).equalsToStrings("200")
-            )
-        ),
+    return runPortalTest(LoadProfile.rampTo(numberOfUsers, Duration.ofSeconds(rampUpPeriod), 1), testName, csvFilePath);
+  }
+
+  private TestPlanStats runPortalTest(LoadProfile loadProfile, String testName, String csvFilePath) throws IOException, InterruptedException, TimeoutException {
+    return runPortalTest(PortalScenario.portalThreadGroup(testName, perWorker(loadProfile),
+      PortalScenario.csvCredentials(csvFilePath), pacing(false)), testName);
+  }
+
+  // Share of every worker. Several stages can only be split in whole users per worker, the run then reports its real load.
+  private LoadProfile perWorker(LoadProfile loadProfile) {
+    int workerCount = workerCount();
+    LoadProfile shares = loadProfile.perWorker(workerCount);
+    if (!shares.stages().equals(loadProfile.stages())) {
+      System.out.printf("Load profile %s runs %s users on %d workers instead of %s%n", loadProfile.name(),
+        shares.stages().stream().map(stage -> String.valueOf(stage.users())).toList(), workerCount,
+        loadProfile.stages().stream().map(stage -> String.valueOf(stage.users())).toList());
+    }
+    return shares;
+  }
+
+  // Think times and session pacing of think.time.* and pacing.interval, open model thread groups only take the think times
+  private ThreadGroupChild[] pacing(boolean openModel) {
+    return pacing(openModel, PortalScenario.SESSION_START);
+  }
+
+  // intervalStep: the sampler every paced iteration starts with
+  private ThreadGroupChild[] pacing(boolean openModel, String intervalStep) {
+    Pacing pacing = Pacing.fromProperties(TestProperties.load()).startingAt(intervalStep);
+    if (openModel) {
+      pacing = pacing.withoutInterval();
+    }
+    return pacing.isConfigured() ? new ThreadGroupChild[] {pacing.timer()} : new ThreadGroupChild[0];
+  }
+
+  private TestPlanStats runPortalTest(BaseThreadGroup<?> threadGroup, String testName) throws IOException, InterruptedException, TimeoutException {
+    boolean binaryResults = isBinaryResults();
+    DslTestPlan plan = testPlan(
+      threadGroup,
       // Remove comment the line below on local environment to debug
       // resultsTreeVisualizer(),
 
-      jtlWriter(jtlDirName, testName + ".jtl"),
-      htmlReporter("target/html-report/" + testName)
-    ).runIn(new EmbeddedJmeterEngine().propertiesFile("resources/test.properties"));
+      binaryResults ? BinaryJtl.writer(jtlDirName, testName + BinaryJtl.EXTENSION) : jtlWriter(jtlDirName, testName + ".jtl")
+    );
+    // the report of binary results is generated after the run, so the samples are not written twice meanwhile
+    if (!binaryResults) {
+      plan.children(htmlReporter("target/html-report/" + testName));
+    }
+    if (slaGate.isLive()) {
+      plan.children(slaGate.autoStopListener());
+    }
+    if (liveMetrics != null) {
+      plan.children(liveMetrics.listener());
+    }
+    SessionMeter sessionMeter = new SessionMeter(PortalScenario.SESSION_START);
+    plan.children(sessionMeter.listener());
+    TestPlanStats stats;
+    InjectorMonitor injectorMonitor = InjectorMonitor.fromProperties(TestProperties.load()).start();
+    try {
+      stats = PortalScenario.run(plan, isDistributed() ? RunMode.DISTRIBUTED : RunMode.EMBEDDED, runProperties);
+    } finally {
+      // a stopped or failed run may be exactly the one the injector could not keep up with
+      lastInjector = injectorMonitor.stop();
+      reportInjector(lastInjector, testName);
+    }
+    System.out.printf("%s: %s%n", testName, sessionMeter.summary());
+    if (binaryResults) {
+      BinaryJtl.htmlReport(resultsFile(testName), Path.of("target/html-report/" + testName));
+    }
+    return stats;
+  }
+
+  // With -Dresults.format=binary the results are written as BinaryJtl instead of CSV
+  private boolean isBinaryResults() {
+    return "binary".equals(TestProperties.load().get("results.format", "csv"));
+  }
+
+  private Path resultsFile(String testName) {
+    return Path.of(jtlDirName, testName + (isBinaryResults() ? BinaryJtl.EXTENSION : ".jtl"));
+  }
+
+  // Local workers or the remote ones of distributed.hosts
+  private boolean isDistributed() {
+    return runProperties.containsKey(JmeterWorkers.HOSTS_KEY) || !TestProperties.load().get(JmeterWorkers.HOSTS_KEY, "").isBlank();
+  }
+
+  private int workerCount() {
+    if (!isDistributed()) {
+      return 1;
+    }
+    return runProperties.getOrDefault(JmeterWorkers.HOSTS_KEY, TestProperties.load().get(JmeterWorkers.HOSTS_KEY, "")).split(",").length;
   }
   
   private void validateTestResults(TestPlanStats stats, String testDescription) {
-    // Validate test results - fail the test if there are any errors
-    if (stats.overall().errorsCount() > 0) {
-      double errorPercentage = (double) stats.overall().errorsCount() / stats.overall().samplesCount() * 100;
-      fail(String.format("%s failed with %d errors out of %d samples (%.2f%% error rate)", 
+    validateInjector(lastInjector, testDescription);
+    // Validate test results - fail the test if any sampler misses its SLA (errors, percentiles, throughput)
+    List<SlaGate.Violation> violations = slaGate.evaluate(stats);
+    if (!violations.isEmpty()) {
+      fail(String.format("%s violated %d SLA thresholds (%d samples, %d errors):%n%s",
            testDescription,
-           stats.overall().errorsCount(), 
-           stats.overall().samplesCount(), 
-           errorPercentage));
+           violations.size(),
+           stats.overall().samplesCount(),
+           stats.overall().errorsCount(),
+           SlaGate.table(violations)));
     } else {
-      System.out.printf("%s completed successfully: %d samples, 0 errors%n", testDescription, stats.overall().samplesCount());
+      System.out.printf("%s completed successfully: %d samples, %d errors, all SLA thresholds met%n",
+        testDescription, stats.overall().samplesCount(), stats.overall().errorsCount());
+    }
+  }
+
+  // The injector report is kept next to the results of every run, including the ones that did not complete
+  private void reportInjector(InjectorMonitor.Report injector, String testName) throws IOException {
+    Files.createDirectories(Path.of(jtlDirName));
+    Files.writeString(Path.of(jtlDirName, testName + ".injector.txt"), injector + System.lineSeparator());
+    if (!injector.saturated()) {
+      System.out.printf("%s injector: %s%n", testName, injector);
+    } else {
+      System.out.printf("WARNING %s ran on a saturated load generator, its latencies are inflated:%n%s%n", testName, injector);
+    }
+  }
+
+  // Latencies of a saturated injector are not the Portal's, with injector.saturation=fail such a run fails before
+  // its SLA is checked. Capacity steps record it as a failed step instead.
+  private void validateInjector(InjectorMonitor.Report injector, String testDescription) {
+    if (injector.saturated() && InjectorMonitor.failsSaturatedRuns(TestProperties.load())) {
+      fail(String.format("%s is invalid, the load generator was saturated:%n%s", testDescription, injector));
+    }
+  }
+
+  private void validateAgainstBaseline(String testName) throws IOException {
+    // Compare with the stored baseline run of the same test, store this run as new baseline with -Dbaseline.update=true
+    TestProperties properties = TestProperties.load();
+    Path currentJtl = resultsFile(testName);
+    Path baselineJtl = Path.of(properties.get("baseline.dir", "resources/baselines"), currentJtl.getFileName().toString());
+    if (Files.exists(baselineJtl)) {
+      RegressionDetector.Report report = new RegressionDetector(properties)
+        .compare(JtlAnalyzer.analyze(baselineJtl), JtlAnalyzer.analyze(currentJtl));
+      Path reportFile = Path.of("target/regression-report", testName + ".txt");
+      Files.createDirectories(reportFile.getParent());
+      Files.writeString(reportFile, report.toString());
+      if (report.hasRegression()) {
+        fail(String.format("%s regressed against baseline %s:%n%s", testName, baselineJtl, report));
+      }
+      System.out.printf("%s has no regression against baseline %s:%n%s", testName, baselineJtl, report);
+    }
+    if (Boolean.parseBoolean(properties.get("baseline.update", "false"))) {
+      Files.createDirectories(baselineJtl.getParent());
+      Files.copy(currentJtl, baselineJtl, StandardCopyOption.REPLACE_EXISTING);
     }
   }
 
@@ -0,0 +1,41 @@
+package com.axonivy;
+
+import java.nio.charset.StandardCharsets;
+
+// Synthetic Portal responses shaped like the real ones: the form action near the top, hundreds of KB of
+// markup, the ViewState hidden input at the end of the form, and JSF partial responses carrying a redirect.
+public class PortalPages {
+
+  public static String page(String title, String formAction, String viewState, int targetBytes) {
+    StringBuilder html = new StringBuilder(targetBytes + 1024)
+      .append("<!DOCTYPE html>\n<html xmlns=\"http://www.w3.org/1999/xhtml\"><head>")
+      .append("<title>").append(title).append("</title>\n");
+    for (int i = 0; i < 20; i++) {
+      html.append("<script type=\"text/javascript\" src=\"/ivy/faces/javax.faces.resource/script-")
+        .append(i).append(".js?ln=primefaces&amp;v=13.0.1\"></script>\n");
+    }
+    html.append("</head><body class=\"portal-body\">\n")
+      .append("<form id=\"form\" name=\"form\" method=\"post\" action=\"").append(formAction)
+      .append("\" enctype=\"application/x-www-form-urlencoded\">\n<table class=\"ui-datatable\">\n");
+    for (int row = 0; html.length() < targetBytes; row++) {
+      html.append("<tr data-ri=\"").append(row).append("\" class=\"ui-widget-content\" role=\"row\">")
+        .append("<td role=\"gridcell\"><span class=\"task-name\">Approve request #").append(row).append("</span></td>")
+        .append("<td role=\"gridcell\"><span class=\"task-state\">OPEN</span></td>")
+        .append("<td role=\"gridcell\"><a href=\"#\" onclick=\"PrimeFaces.ab({s:'task-").append(row)
+        .append("',f:'form',u:'task-widget'});return false;\">Open</a></td></tr>\n");
+    }
+    return html.append("</table>\n")
+      .append("<input type=\"hidden\" name=\"javax.faces.ViewState\" id=\"j_id__v_0:javax.faces.ViewState:1\" value=\"")
+      .append(viewState).append("\" autocomplete=\"off\" />\n</form></body></html>\n")
+      .toString();
+  }
+
+  public static String redirect(String url) {
+    return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<partial-response id=\"j_id__v_0\"><redirect url=\""
+      + url + "\"></redirect></partial-response>";
+  }
+
+  public static byte[] bytes(String response) {
+    return response.getBytes(StandardCharsets.UTF_8);
+  }
+}
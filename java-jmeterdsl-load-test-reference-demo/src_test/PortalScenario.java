@@ -0,0 +1,291 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.DslTestPlan;
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+import us.abstracta.jmeter.javadsl.core.assertions.DslResponseAssertion;
+import us.abstracta.jmeter.javadsl.core.configs.DslCsvDataSet;
+import us.abstracta.jmeter.javadsl.core.engines.DistributedJmeterEngine;
+import us.abstracta.jmeter.javadsl.core.engines.EmbeddedJmeterEngine;
+import us.abstracta.jmeter.javadsl.core.threadgroups.BaseThreadGroup.ThreadGroupChild;
+import us.abstracta.jmeter.javadsl.core.threadgroups.DslDefaultThreadGroup;
+import us.abstracta.jmeter.javadsl.core.threadgroups.RpsThreadGroup;
+import us.abstracta.jmeter.javadsl.http.DslHttpSampler;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+import static us.abstracta.jmeter.javadsl.core.assertions.DslResponseAssertion.TargetField;
+
+// Building blocks of the Portal walkthrough (PortalStart -> Login -> Processes -> TaskList -> CaseList -> Logout).
+// Test plans compose these fragments instead of copying the samplers, so every load shape runs the same journey.
+public class PortalScenario {
+
+  public static final String PROPERTIES_FILE = "resources/test.properties";
+  public static final String SESSION_START = "PortalStart";
+  // Steps a user triggers, the page loads following them are redirects the browser runs right away
+  public static final Set<String> USER_ACTIONS = Set.of("Login", "NavigateToProcesses", "NavigateToTaskList", "NavigateToCaseList", "Logout");
+
+  private static final String HOME_PAGE_PATH = "/${__P(security.system.name)}/${__P(application.name)}/pro/${__P(project.name)}/1549F58C18A6C562/DefaultApplicationHomePage.ivp";
+  private static final String MAIN_MENU = "user-menu-required-login:main-navigator:main-menu";
+
+  private static final Map<String, Supplier<DslHttpSampler>> STEPS = Map.of(
+    SESSION_START, PortalScenario::portalStart,
+    "Login", PortalScenario::login,
+    "PortalHome", PortalScenario::portalHome,
+    "NavigateToProcesses", PortalScenario::navigateToProcesses,
+    "PortalProcesses", PortalScenario::portalProcesses,
+    "NavigateToTaskList", PortalScenario::navigateToTaskList,
+    "PortalTaskList", PortalScenario::portalTaskList,
+    "NavigateToCaseList", PortalScenario::navigateToCaseList,
+    "PortalCaseList", PortalScenario::portalCaseList,
+    "Logout", PortalScenario::logout);
+
+  public enum RunMode {
+    EMBEDDED,
+    // the plan runs on the JMeter workers of distributed.hosts, samples stream back into one JTL and TestPlanStats
+    DISTRIBUTED,
+    GUI
+  }
+
+  public static DslDefaultThreadGroup portalThreadGroup(String testName, int numberOfUsers, int rampUpPeriod, String csvFilePath) {
+    return portalThreadGroup(testName,
+      LoadProfile.rampTo(numberOfUsers,      // Number of users
+        Duration.ofSeconds(rampUpPeriod),    // Ramp up period
+        1),                                  // portal.thread.loop
+      csvFilePath);
+  }
+
+  public static DslDefaultThreadGroup portalThreadGroup(String testName, LoadProfile loadProfile, String csvFilePath) {
+    return portalThreadGroup(testName, loadProfile, csvCredentials(csvFilePath));
+  }
+
+  // extras: further thread group level elements, e.g. the Pacing timer
+  public static DslDefaultThreadGroup portalThreadGroup(String testName, LoadProfile loadProfile, ThreadGroupChild credentials, ThreadGroupChild... extras) {
+    return loadProfile.applyTo(threadGroup(testName))
+      .children(concat(sessionConfig(credentials), extras, walkthrough()));
+  }
+
+  // Several journeys in one thread group, each iteration runs one of them picked by its weight
+  public static DslDefaultThreadGroup portalMixThreadGroup(String testName, LoadProfile loadProfile, WorkloadMix mix, ThreadGroupChild credentials, ThreadGroupChild... extras) {
+    return loadProfile.applyTo(threadGroup(testName))
+      .children(concat(sessionConfig(credentials), extras, new ThreadGroupChild[] {mix.controller()}));
+  }
+
+  // Session reuse: every user logs in once, loops the authenticated pages and logs out after its last iteration.
+  // The credentials only apply to the login, so a user pool hands out one user per session instead of per iteration.
+  public static DslDefaultThreadGroup portalSessionReuseThreadGroup(String testName, LoadProfile loadProfile, ThreadGroupChild credentials, ThreadGroupChild... extras) {
+    return loadProfile.applyTo(threadGroup(testName))
+      .children(concat(sessionConfig(false), extras, SessionReuse.journey(loadProfile.iterations(), credentials)));
+  }
+
+  // Open model: sessions start at the profile rate on up to maxThreads threads, whatever the Portal response times
+  public static RpsThreadGroup portalArrivalThreadGroup(String testName, ArrivalProfile arrivalProfile, int maxThreads, ArrivalTracker arrivalTracker, ThreadGroupChild credentials, ThreadGroupChild... extras) {
+    return portalArrivalThreadGroup(testName, arrivalProfile, maxThreads, credentials,
+      concat(new ThreadGroupChild[] {arrivalTracker.preProcessor()}, extras));
+  }
+
+  // Without an ArrivalTracker, whose lambda cannot run on remote workers
+  public static RpsThreadGroup portalArrivalThreadGroup(String testName, ArrivalProfile arrivalProfile, int maxThreads, ThreadGroupChild credentials, ThreadGroupChild... extras) {
+    return arrivalProfile.applyTo(rpsThreadGroup(testName))
+      .maxThreads(maxThreads)
+      .children(concat(sessionConfig(credentials), extras, walkthrough()));
+  }
+
+  public static TestPlanStats run(DslTestPlan testPlan, RunMode runMode) throws IOException, InterruptedException, TimeoutException {
+    return run(testPlan, runMode, Map.of());
+  }
+
+  // properties override test.properties for this run only, e.g. the address of a MockPortalServer.
+  // Remote workers evaluate ${__P()} with their own properties, so they have to be started with the same overrides.
+  public static TestPlanStats run(DslTestPlan testPlan, RunMode runMode, Map<String, String> properties) throws IOException, InterruptedException, TimeoutException {
+    EmbeddedJmeterEngine engine;
+    switch (runMode) {
+      case GUI:
+        testPlan.showInGui();
+        return null;
+      case DISTRIBUTED:
+        String hosts = properties.getOrDefault(JmeterWorkers.HOSTS_KEY, TestProperties.load().get(JmeterWorkers.HOSTS_KEY, ""));
+        if (hosts.isBlank()) {
+          throw new IllegalArgumentException("Distributed run needs the JMeter workers in " + JmeterWorkers.HOSTS_KEY);
+        }
+        engine = new DistributedJmeterEngine(hosts.split("\\s*,\\s*"));
+        break;
+      default:
+        engine = new EmbeddedJmeterEngine();
+    }
+    engine.propertiesFile(PROPERTIES_FILE);
+    properties.forEach(engine::prop);
+    return testPlan.runIn(engine);
+  }
+
+  // HTTP defaults, cookies, browser headers and credentials shared by every Portal journey
+  public static ThreadGroupChild[] sessionConfig(String csvFilePath) {
+    return sessionConfig(csvCredentials(csvFilePath));
+  }
+
+  // credentials: any element providing the username and password variables, e.g. csvCredentials or a UserPool
+  public static ThreadGroupChild[] sessionConfig(ThreadGroupChild credentials) {
+    return concat(sessionConfig(true), new ThreadGroupChild[] {credentials});
+  }
+
+  // newSessionPerIteration: drop the session cookie after every iteration, like a browser closed after logout
+  private static ThreadGroupChild[] sessionConfig(boolean newSessionPerIteration) {
+    return new ThreadGroupChild[] {
+      httpDefaults()
+        .url("http://${__P(server.host)}:${__P(server.port,8081)}"),
+      httpCookies().clearCookiesBetweenIterations(newSessionPerIteration),
+
+      httpHeaders().header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,image/apng,*/*;q=0.8")
+        .header("Accept-Encoding", "gzip, deflate, br")
+        .header("Accept-Language", "en-US,en;q=0.9")
+        .header("Connection", "keep-alive")
+        .header("Upgrade-Insecure-Requests", "1")
+        .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/66.0.3359.139 Safari/537.36")
+    };
+  }
+
+  public static DslCsvDataSet csvCredentials(String csvFilePath) {
+    return csvDataSet(csvFilePath)
+      .variableNames("username,password")
+      .delimiter(",")
+      .ignoreFirstLine(false);
+  }
+
+  // One of the walkthrough samplers by its label, for journeys declared in test.properties
+  public static DslHttpSampler step(String label) {
+    Supplier<DslHttpSampler> step = STEPS.get(label);
+    if (step == null) {
+      throw new IllegalArgumentException("Unknown Portal step " + label + ", expected one of " + new TreeSet<>(STEPS.keySet()));
+    }
+    return step.get();
+  }
+
+  public static ThreadGroupChild[] walkthrough() {
+    return new ThreadGroupChild[] {
+      portalStart(),
+      login(),
+      portalHome(),
+      navigateToProcesses(),
+      portalProcesses(),
+      navigateToTaskList(),
+      portalTaskList(),
+      navigateToCaseList(),
+      portalCaseList(),
+      logout()
+    };
+  }
+
+  public static DslHttpSampler portalStart() {
+    return httpSampler(SESSION_START, HOME_PAGE_PATH)
+      .method("GET")
+      .children(
+        JsfCorrelation.pageTokens()
+      );
+  }
+
+  public static DslHttpSampler login() {
+    return httpSampler("Login", "${url}")
+      .method("POST")
+      .param("javax.faces.partial.ajax", "true")
+      .param("javax.faces.source", "login-form:login-command")
+      .param("javax.faces.partial.execute", "@all")
+      .param("javax.faces.partial.render", "login:login-form")
+      .param("login:login-form:login-command", "login:login-form:login-command")
+      .param("login:login-form:username", "${username}")
+      .param("login:login-form:password", "${password}")
+      .param("login:login-form_SUBMIT", "1")
+      .param("javax.faces.ViewState", "${viewState}")
+      .children(
+        statusOk()
+      );
+  }
+
+  public static DslHttpSampler portalHome() {
+    return page("PortalHome", HOME_PAGE_PATH);
+  }
+
+  public static DslHttpSampler navigateToProcesses() {
+    return navigateTo("NavigateToProcesses", "process", "process_1");
+  }
+
+  public static DslHttpSampler portalProcesses() {
+    return page("PortalProcesses", "${redirectURL}");
+  }
+
+  public static DslHttpSampler navigateToTaskList() {
+    return navigateTo("NavigateToTaskList", "main_dashboard", "_js__default-task-list-dashboard-main-dashboard");
+  }
+
+  public static DslHttpSampler portalTaskList() {
+    return page("PortalTaskList", "${redirectURL}");
+  }
+
+  public static DslHttpSampler navigateToCaseList() {
+    return navigateTo("NavigateToCaseList", "main_dashboard", "_js__default-case-list-dashboard-main-dashboard");
+  }
+
+  public static DslHttpSampler portalCaseList() {
+    return page("PortalCaseList", "${redirectURL}");
+  }
+
+  public static DslHttpSampler logout() {
+    return httpSampler("Logout", "${url}")
+      .method("POST")
+      .param("javax.faces.partial.ajax", "true")
+      .param("javax.faces.source", "logout-setting:logout-menu-item")
+      .param("javax.faces.partial.execute", "@all")
+      .param("logout-setting:logout-menu-item", "logout-setting:logout-menu-item")
+      .param("javax.faces.ViewState", "${viewState}")
+      .children(
+        statusOk()
+      );
+  }
+
+  public static DslResponseAssertion statusOk() {
+    return responseAssertion().fieldToTest(TargetField.RESPONSE_CODE).equalsToStrings("200");
+  }
+
+  public static ThreadGroupChild[] concat(ThreadGroupChild[]... parts) {
+    return Arrays.stream(parts)
+      .flatMap(Arrays::stream)
+      .toArray(ThreadGroupChild[]::new);
+  }
+
+  // Full page GET: keeps the form action and ViewState for the next JSF post
+  private static DslHttpSampler page(String name, String url) {
+    return httpSampler(name, url)
+      .method("GET")
+      .children(
+        JsfCorrelation.pageTokens(),
+        statusOk()
+      );
+  }
+
+  // Ajax click on the main menu, answered with a partial response holding the redirect target
+  private static DslHttpSampler navigateTo(String name, String menuKind, String menuId) {
+    return httpSampler(name, "${url}")
+      .method("POST")
+      .param("javax.faces.partial.ajax", "true")
+      .param("javax.faces.source", MAIN_MENU)
+      .param("javax.faces.partial.execute", MAIN_MENU)
+      .param("javax.faces.partial.render", MAIN_MENU)
+      .param(MAIN_MENU, MAIN_MENU)
+      .param("taskId", "")
+      .param("isWorkingOnATask", "false")
+      .param("menuKind", menuKind)
+      .param("menuUrl", "")
+      .param(MAIN_MENU + "_menuid", menuId)
+      .param("javax.faces.ViewState", "${viewState}")
+      .children(
+        JsfCorrelation.redirectUrl(),
+        statusOk()
+      );
+  }
+}
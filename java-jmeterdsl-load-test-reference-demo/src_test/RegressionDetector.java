@@ -0,0 +1,163 @@
+package com.axonivy;
+
+import com.axonivy.JtlAnalyzer.LabelSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Compares the per label latency distributions of a run with a baseline run.
+// A label regresses when its percentile grows beyond the tolerance AND a one-sided Mann-Whitney U test says
+// the whole distribution shifted up (so a single slow outlier does not fail the build), or when its error
+// rate increased significantly (two-proportion z-test).
+public class RegressionDetector {
+
+  private final double percentile;
+  private final double tolerancePercent;
+  private final double significance;
+  private final long minSamples;
+
+  public enum Verdict {
+    OK,
+    REGRESSION,
+    INCONCLUSIVE,
+    NEW,
+    MISSING
+  }
+
+  public record Comparison(String label, LabelSummary baseline, LabelSummary current, double changePercent, double latencyPValue, double errorPValue, Verdict verdict) {
+  }
+
+  public record Report(double percentile, List<Comparison> comparisons) {
+
+    public boolean hasRegression() {
+      return comparisons.stream().anyMatch(comparison -> comparison.verdict() == Verdict.REGRESSION);
+    }
+
+    @Override
+    public String toString() {
+      String percentileName = String.format("p%.0f", percentile);
+      StringBuilder table = new StringBuilder(String.format("%-24s %10s %10s %10s %10s %9s %9s %15s %13s%n",
+        "Label", "Base n", "Base " + percentileName, "Run n", "Run " + percentileName, "Change", "p-value", "Errors", "Verdict"));
+      for (Comparison comparison : comparisons) {
+        table.append(String.format("%-24s %10s %10s %10s %10s %9s %9s %15s %13s%n",
+          comparison.label(),
+          count(comparison.baseline()),
+          percentile(comparison.baseline()),
+          count(comparison.current()),
+          percentile(comparison.current()),
+          Double.isNaN(comparison.changePercent()) ? "-" : String.format("%+.1f%%", comparison.changePercent()),
+          Double.isNaN(comparison.latencyPValue()) ? "-" : String.format("%.4f", comparison.latencyPValue()),
+          errors(comparison.baseline()) + " -> " + errors(comparison.current()),
+          comparison.verdict()));
+      }
+      return table.toString();
+    }
+
+    private String count(LabelSummary summary) {
+      return summary == null ? "-" : String.valueOf(summary.samples());
+    }
+
+    private String percentile(LabelSummary summary) {
+      return summary == null ? "-" : summary.histogram().percentile(percentile) + " ms";
+    }
+
+    private String errors(LabelSummary summary) {
+      return summary == null ? "-" : String.format("%.1f%%", summary.errorRate());
+    }
+  }
+
+  public RegressionDetector(double percentile, double tolerancePercent, double significance, long minSamples) {
+    this.percentile = percentile;
+    this.tolerancePercent = tolerancePercent;
+    this.significance = significance;
+    this.minSamples = minSamples;
+  }
+
+  public RegressionDetector(TestProperties properties) {
+    this(properties.getDouble("regression.percentile", 90),
+      properties.getDouble("regression.tolerance.percent", 10),
+      properties.getDouble("regression.significance", 0.01),
+      properties.getInt("regression.min.samples", 30));
+  }
+
+  public Report compare(Map<String, LabelSummary> baseline, Map<String, LabelSummary> current) {
+    List<Comparison> comparisons = new ArrayList<>();
+    TreeSet<String> labels = new TreeSet<>(baseline.keySet());
+    labels.addAll(current.keySet());
+    for (String label : labels) {
+      comparisons.add(compare(label, baseline.get(label), current.get(label)));
+    }
+    return new Report(percentile, comparisons);
+  }
+
+  private Comparison compare(String label, LabelSummary baseline, LabelSummary current) {
+    if (baseline == null || current == null) {
+      return new Comparison(label, baseline, current, Double.NaN, Double.NaN, Double.NaN, baseline == null ? Verdict.NEW : Verdict.MISSING);
+    }
+    long basePercentile = baseline.histogram().percentile(percentile);
+    long runPercentile = current.histogram().percentile(percentile);
+    double changePercent = basePercentile == 0 ? 0 : (double) (runPercentile - basePercentile) / basePercentile * 100;
+    if (baseline.samples() < minSamples || current.samples() < minSamples) {
+      return new Comparison(label, baseline, current, changePercent, Double.NaN, Double.NaN, Verdict.INCONCLUSIVE);
+    }
+    double latencyPValue = mannWhitneyPValue(baseline.histogram(), current.histogram());
+    double errorPValue = errorIncreasePValue(baseline, current);
+    boolean slower = changePercent > tolerancePercent && latencyPValue < significance;
+    boolean failing = current.errorRate() > baseline.errorRate() && errorPValue < significance;
+    return new Comparison(label, baseline, current, changePercent, latencyPValue, errorPValue, slower || failing ? Verdict.REGRESSION : Verdict.OK);
+  }
+
+  // One-sided p-value for "current is stochastically larger than baseline", computed on the histogram
+  // buckets: samples in the same bucket are ties and get the mid rank, with the usual tie correction.
+  static double mannWhitneyPValue(LatencyHistogram baseline, LatencyHistogram current) {
+    double baseCount = baseline.count();
+    double runCount = current.count();
+    double total = baseCount + runCount;
+    double rankSum = 0;
+    double tieSum = 0;
+    double ranked = 0;
+    for (int i = 0; i < baseline.bucketCount(); i++) {
+      double ties = baseline.countAt(i) + current.countAt(i);
+      if (ties == 0) {
+        continue;
+      }
+      rankSum += current.countAt(i) * (ranked + (ties + 1) / 2);
+      tieSum += ties * ties * ties - ties;
+      ranked += ties;
+    }
+    double u = rankSum - runCount * (runCount + 1) / 2;
+    double mean = baseCount * runCount / 2;
+    double variance = baseCount * runCount / 12 * ((total + 1) - tieSum / (total * (total - 1)));
+    if (variance <= 0) {
+      return 1;
+    }
+    double z = (u - mean - 0.5) / Math.sqrt(variance);
+    return 1 - normalCdf(z);
+  }
+
+  // One-sided p-value for "current error rate is higher than baseline error rate"
+  static double errorIncreasePValue(LabelSummary baseline, LabelSummary current) {
+    double baseRate = (double) baseline.errors() / baseline.samples();
+    double runRate = (double) current.errors() / current.samples();
+    double pooled = (double) (baseline.errors() + current.errors()) / (baseline.samples() + current.samples());
+    double standardError = Math.sqrt(pooled * (1 - pooled) * (1.0 / baseline.samples() + 1.0 / current.samples()));
+    if (standardError == 0) {
+      return 1;
+    }
+    return 1 - normalCdf((runRate - baseRate) / standardError);
+  }
+
+  static double normalCdf(double z) {
+    return 0.5 * erfc(-z / Math.sqrt(2));
+  }
+
+  // Chebyshev approximation of the complementary error function, accurate to 1.2e-7
+  private static double erfc(double x) {
+    double t = 1 / (1 + 0.5 * Math.abs(x));
+    double result = t * Math.exp(-x * x - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+      + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587 + t * (-0.82215223 + t * 0.17087277)))))))));
+    return x >= 0 ? result : 2 - result;
+  }
+}
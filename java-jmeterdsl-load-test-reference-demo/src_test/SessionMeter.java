@@ -0,0 +1,128 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.BuildTreeContext;
+import us.abstracta.jmeter.javadsl.core.listeners.DslListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.jmeter.control.TransactionController;
+import org.apache.jmeter.engine.util.NoThreadClone;
+import org.apache.jmeter.samplers.Remoteable;
+import org.apache.jmeter.samplers.SampleEvent;
+import org.apache.jmeter.samplers.SampleListener;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jorphan.collections.HashTree;
+
+// Reports concurrent Portal sessions and the request rate they cause separately. "N users" says little on its own:
+// without think times N users send many times the requests of N real users, so capacity is stated as both numbers.
+// Every active JMeter thread is one open session, the session count is the number of session start samples.
+public class SessionMeter {
+
+  private final String sessionStartLabel;
+  private final LongAdder samples = new LongAdder();
+  private final LongAdder sessions = new LongAdder();
+  private final LongAccumulator firstStart = new LongAccumulator(Math::min, Long.MAX_VALUE);
+  private final LongAccumulator lastEnd = new LongAccumulator(Math::max, 0);
+  private final Map<String, HostThreads> threadsByHost = new ConcurrentHashMap<>();
+
+  private static class HostThreads {
+
+    private final LongAccumulator peak = new LongAccumulator(Math::max, 0);
+    private final LongAdder sum = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+  }
+
+  public record Summary(long sessions, long peakSessions, double averageSessions, double sessionsPerSecond, double requestsPerSecond) {
+
+    public double requestsPerSecondPerSession() {
+      return averageSessions == 0 ? 0 : requestsPerSecond / averageSessions;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d sessions, %d concurrent at peak (%.1f on average), %.2f sessions/s, %.1f req/s (%.2f req/s per session)",
+        sessions, peakSessions, averageSessions, sessionsPerSecond, requestsPerSecond, requestsPerSecondPerSession());
+    }
+  }
+
+  // Remoteable like ResultCollector, remote workers stream their samples to it
+  private static class Collector extends AbstractTestElement implements SampleListener, Remoteable, NoThreadClone {
+
+    private final transient SessionMeter meter;
+
+    private Collector(SessionMeter meter) {
+      this.meter = meter;
+    }
+
+    // a distributed run clones the plan before it starts the remote engines, the clone has to stay this instance
+    @Override
+    public Object clone() {
+      return this;
+    }
+
+    @Override
+    public void sampleOccurred(SampleEvent event) {
+      meter.record(event.getHostname(), event.getResult());
+    }
+
+    @Override
+    public void sampleStarted(SampleEvent event) {
+    }
+
+    @Override
+    public void sampleStopped(SampleEvent event) {
+    }
+  }
+
+  public SessionMeter(String sessionStartLabel) {
+    this.sessionStartLabel = sessionStartLabel;
+  }
+
+  // Test plan level listener feeding this meter
+  public DslListener listener() {
+    Collector collector = new Collector(this);
+    return new DslListener() {
+
+      @Override
+      public HashTree buildTreeUnder(HashTree parent, BuildTreeContext context) {
+        return parent.add(collector);
+      }
+
+      @Override
+      public void showInGui() {
+      }
+    };
+  }
+
+  void record(String host, SampleResult result) {
+    // journeys of a WorkloadMix are transactions around samples counted already
+    if (TransactionController.isFromTransactionController(result)) {
+      return;
+    }
+    samples.increment();
+    if (sessionStartLabel.equals(result.getSampleLabel())) {
+      sessions.increment();
+    }
+    firstStart.accumulate(result.getStartTime());
+    lastEnd.accumulate(result.getEndTime());
+    HostThreads threads = threadsByHost.computeIfAbsent(host == null ? "" : host, key -> new HostThreads());
+    threads.peak.accumulate(result.getAllThreads());
+    threads.sum.add(result.getAllThreads());
+    threads.samples.increment();
+  }
+
+  // Peaks and averages of the injectors add up, each one only knows its own threads
+  public Summary summary() {
+    long count = samples.sum();
+    double seconds = count == 0 ? 0 : Math.max(1, lastEnd.get() - firstStart.get()) / 1000.0;
+    long peak = threadsByHost.values().stream().mapToLong(threads -> threads.peak.get()).sum();
+    double average = threadsByHost.values().stream()
+      .mapToDouble(threads -> (double) threads.sum.sum() / Math.max(1, threads.samples.sum()))
+      .sum();
+    return new Summary(sessions.sum(), peak, average, seconds == 0 ? 0 : sessions.sum() / seconds, seconds == 0 ? 0 : count / seconds);
+  }
+}
@@ -0,0 +1,66 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+import us.abstracta.jmeter.javadsl.core.stats.StatsSummary;
+import us.abstracta.jmeter.javadsl.core.threadgroups.BaseThreadGroup.ThreadGroupChild;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+// Session reuse mode of the Portal walkthrough, selected with -Dsession.reuse=true:
+//   Authentication (PortalStart, Login)  once per virtual user, in its first iteration
+//   Navigation (PortalHome, TaskList and CaseList)  every iteration, on the same session and ViewState
+//   Logout  after the last iteration of iteration profiles (<users>/<ramp up>/<n>x), timed profiles stop the users
+//           mid-session and leave their sessions to expire on the Portal
+// Logging in every iteration makes login look more expensive and the pages cheaper than they are for users who stay
+// logged in all day, so this mode measures both sides on their own. pacing.interval applies to the loop (LOOP_START).
+public class SessionReuse {
+
+  public static final String ENABLED_KEY = "session.reuse";
+  public static final String AUTHENTICATION = "Authentication";
+  public static final String NAVIGATION = "Navigation";
+  public static final List<String> TRANSACTIONS = List.of(AUTHENTICATION, NAVIGATION);
+  // first sampler of every iteration, PortalStart only runs in the first one
+  public static final String LOOP_START = "PortalHome";
+
+  private SessionReuse() {
+  }
+
+  // iterations: of every user, 0 when unknown because the users run for a duration
+  // credentials: element providing username and password, only applied to the once-only login so the user keeps them
+  public static ThreadGroupChild[] journey(int iterations, ThreadGroupChild credentials) {
+    List<ThreadGroupChild> children = new ArrayList<>(List.of(
+      onceOnlyController(
+        credentials,
+        transaction(AUTHENTICATION,
+          PortalScenario.portalStart(),
+          PortalScenario.login())),
+      transaction(NAVIGATION,
+        PortalScenario.portalHome(),
+        PortalScenario.navigateToTaskList(),
+        PortalScenario.portalTaskList(),
+        PortalScenario.navigateToCaseList(),
+        PortalScenario.portalCaseList())));
+    if (iterations > 0) {
+      // the iteration counter of JMeter starts at 1
+      children.add(ifController("${__jexl3(vars.getIteration() >= " + iterations + ")}",
+        PortalScenario.logout()));
+    }
+    return children.toArray(ThreadGroupChild[]::new);
+  }
+
+  // Logins and navigation loops with their own rates and times, next to the pages they consist of
+  public static String report(TestPlanStats stats) {
+    StringBuilder report = new StringBuilder(String.format("%-16s %8s %10s %10s %10s%n", "Phase", "Count", "Per s", "Mean ms", "P90 ms"));
+    for (String label : List.of(AUTHENTICATION, NAVIGATION, "Logout")) {
+      if (stats.labels().contains(label)) {
+        StatsSummary summary = stats.byLabel(label);
+        report.append(String.format("%-16s %8d %10.2f %10d %10d%n", label, summary.samplesCount(), summary.samples().perSecond(),
+          summary.sampleTime().mean().toMillis(), summary.sampleTime().perc90().toMillis()));
+      }
+    }
+    return report.toString();
+  }
+}
@@ -0,0 +1,47 @@
+package com.axonivy;
+
+import com.axonivy.PortalScenario.RunMode;
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+import us.abstracta.jmeter.javadsl.core.threadgroups.BaseThreadGroup.ThreadGroupChild;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+public class SessionReuseTest {
+
+  @Test
+  public void logsInOncePerUser(@TempDir Path tempDir) throws Exception {
+    try (MockPortalServer mockPortal = new MockPortalServer(MockPortalServerTest.mockProperties(tempDir)).start()) {
+      UserPool userPool = UserPool.generate("user{0}", "secret{0}", 3, UserPool.Mode.UNIQUE);
+      TestPlanStats stats = PortalScenario.run(testPlan(
+          PortalScenario.portalSessionReuseThreadGroup("reuse", LoadProfile.rampTo(3, Duration.ZERO, 5), userPool.preProcessor())),
+        RunMode.EMBEDDED, mockPortal.jmeterProperties());
+
+      assertThat(stats.overall().errorsCount()).isZero();
+      assertThat(stats.byLabel(SessionReuse.AUTHENTICATION).samplesCount()).isEqualTo(3);
+      assertThat(stats.byLabel("Login").samplesCount()).isEqualTo(3);
+      assertThat(stats.byLabel(SessionReuse.NAVIGATION).samplesCount()).isEqualTo(15);
+      assertThat(stats.byLabel("PortalCaseList").samplesCount()).isEqualTo(15);
+      assertThat(stats.byLabel("Logout").samplesCount()).isEqualTo(3);
+      MockPortalServer.Stats served = mockPortal.stats();
+      assertThat(served.sessions()).isEqualTo(3);
+      assertThat(served.openSessions()).isZero();
+      assertThat(served.logins()).isEqualTo(3);
+      assertThat(served.viewStateErrors()).isZero();
+      assertThat(SessionReuse.report(stats)).contains(SessionReuse.AUTHENTICATION, SessionReuse.NAVIGATION, "Logout");
+    }
+  }
+
+  @Test
+  public void leavesTimedSessionsOpen() {
+    ThreadGroupChild credentials = PortalScenario.csvCredentials("users.csv");
+    assertThat(SessionReuse.journey(LoadProfile.parse("timed", "5/10s/1m").iterations(), credentials)).hasSize(2);
+    assertThat(SessionReuse.journey(LoadProfile.parse("counted", "5/10s/3x").iterations(), credentials)).hasSize(3);
+  }
+}
@@ -0,0 +1,213 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+import us.abstracta.jmeter.javadsl.core.listeners.AutoStopListener;
+import us.abstracta.jmeter.javadsl.core.listeners.AutoStopListener.AutoStopCondition;
+import us.abstracta.jmeter.javadsl.core.stats.StatsSummary;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static us.abstracta.jmeter.javadsl.JmeterDsl.autoStop;
+
+// Per sampler SLA thresholds read from resources/sla.properties as "sla.<label>.<metric>=<threshold>".
+// "sla.default.<metric>" applies to every label without its own value for that metric, except for transactions:
+// a transaction spans several pages, so only its own "sla.<transaction>.<metric>" thresholds apply to it.
+public class SlaGate {
+
+  public static final String SLA_FILE_KEY = "sla.file";
+  public static final String DEFAULT_LABEL = "default";
+
+  private static final String PREFIX = "sla.";
+  private static final String LIVE_PREFIX = PREFIX + "live.";
+
+  private final Map<String, Map<Metric, Double>> thresholds;
+  private final Set<String> transactions = new TreeSet<>();
+  private final boolean live;
+  private final double liveFactor;
+  private final double liveErrorRate;
+  private final Duration liveWindow;
+  private final Duration liveHoldsFor;
+
+  public enum Metric {
+    P50("p50", 50),
+    P90("p90", 90),
+    P95("p95", 95),
+    P99("p99", 99),
+    MAX("max", 0),
+    ERROR_RATE("error.rate", 0),
+    MIN_THROUGHPUT("min.throughput", 0);
+
+    private final String key;
+    private final double percentile;
+
+    Metric(String key, double percentile) {
+      this.key = key;
+      this.percentile = percentile;
+    }
+
+    public String key() {
+      return key;
+    }
+
+    private boolean isTime() {
+      return this != ERROR_RATE && this != MIN_THROUGHPUT;
+    }
+
+    // Time thresholds are kept in milliseconds, error rate in percent and throughput in samples per second
+    private double parse(String value) {
+      return isTime() ? TestProperties.parseDuration(value).toMillis() : Double.parseDouble(value);
+    }
+
+    private double actual(StatsSummary stats) {
+      switch (this) {
+        case P50:
+          return stats.sampleTime().median().toMillis();
+        case P90:
+          return stats.sampleTime().perc90().toMillis();
+        case P95:
+          return stats.sampleTime().perc95().toMillis();
+        case P99:
+          return stats.sampleTime().perc99().toMillis();
+        case MAX:
+          return stats.sampleTime().max().toMillis();
+        case ERROR_RATE:
+          return stats.samplesCount() == 0 ? 0 : (double) stats.errorsCount() / stats.samplesCount() * 100;
+        default:
+          return stats.samples().perSecond();
+      }
+    }
+
+    private boolean isViolated(double threshold, double actual) {
+      return this == MIN_THROUGHPUT ? actual < threshold : actual > threshold;
+    }
+
+    private String format(double value) {
+      if (isTime()) {
+        return String.format("%d ms", Math.round(value));
+      }
+      return this == ERROR_RATE ? String.format("%.2f %%", value) : String.format("%.2f/s", value);
+    }
+  }
+
+  public record Violation(String label, Metric metric, double threshold, double actual) {
+
+    @Override
+    public String toString() {
+      return String.format("%-24s %-16s %14s %14s", label, metric.key(), (metric == Metric.MIN_THROUGHPUT ? ">= " : "<= ") + metric.format(threshold), metric.format(actual));
+    }
+  }
+
+  public SlaGate(TestProperties properties) {
+    thresholds = new TreeMap<>();
+    for (String name : properties.names()) {
+      if (!name.startsWith(PREFIX) || name.startsWith(LIVE_PREFIX) || name.equals(SLA_FILE_KEY)) {
+        continue;
+      }
+      String labelAndMetric = name.substring(PREFIX.length());
+      Metric metric = metricOf(labelAndMetric, name);
+      String label = labelAndMetric.substring(0, labelAndMetric.length() - metric.key().length() - 1);
+      thresholds.computeIfAbsent(label, key -> new EnumMap<>(Metric.class)).put(metric, metric.parse(properties.get(name)));
+    }
+    live = Boolean.parseBoolean(properties.get(LIVE_PREFIX + "enabled", "false"));
+    liveFactor = properties.getDouble(LIVE_PREFIX + "factor", 2);
+    liveErrorRate = properties.getDouble(LIVE_PREFIX + "error.rate", 5);
+    liveWindow = properties.getDuration(LIVE_PREFIX + "window", Duration.ofSeconds(10));
+    liveHoldsFor = properties.getDuration(LIVE_PREFIX + "holds.for", Duration.ofSeconds(30));
+  }
+
+  // SLA file configured by sla.file in test.properties
+  public static SlaGate load() {
+    return new SlaGate(new TestProperties(TestProperties.load().get(SLA_FILE_KEY)));
+  }
+
+  private static Metric metricOf(String labelAndMetric, String name) {
+    for (Metric metric : Metric.values()) {
+      if (labelAndMetric.endsWith("." + metric.key())) {
+        return metric;
+      }
+    }
+    throw new IllegalArgumentException("Unknown SLA metric in " + name);
+  }
+
+  // Labels of the transaction controllers of the plan about to run, their samples sum up several pages
+  public SlaGate transactions(Collection<String> labels) {
+    transactions.addAll(labels);
+    return this;
+  }
+
+  public Map<Metric, Double> thresholdsFor(String label) {
+    Map<Metric, Double> merged = new EnumMap<>(Metric.class);
+    if (!transactions.contains(label)) {
+      merged.putAll(thresholds.getOrDefault(DEFAULT_LABEL, Map.of()));
+    }
+    merged.putAll(thresholds.getOrDefault(label, Map.of()));
+    return merged;
+  }
+
+  public List<Violation> evaluate(TestPlanStats stats) {
+    List<Violation> violations = new ArrayList<>();
+    for (String label : new TreeSet<>(stats.labels())) {
+      StatsSummary labelStats = stats.byLabel(label);
+      thresholdsFor(label).forEach((metric, threshold) -> {
+        double actual = metric.actual(labelStats);
+        if (metric.isViolated(threshold, actual)) {
+          violations.add(new Violation(label, metric, threshold, actual));
+        }
+      });
+    }
+    return violations;
+  }
+
+  public static String table(List<Violation> violations) {
+    StringBuilder table = new StringBuilder(String.format("%-24s %-16s %14s %14s%n", "Label", "Metric", "Threshold", "Actual"));
+    violations.forEach(violation -> table.append(violation).append(System.lineSeparator()));
+    return table.toString();
+  }
+
+  public boolean isLive() {
+    return live;
+  }
+
+  // Stops the run once a latency or error threshold is exceeded by the live factor for the whole holds.for period.
+  // Default thresholds are checked on all samples but the transactions: if every page meets a percentile, the mix of them does too.
+  // Error rates stop the run from sla.live.error.rate on at the earliest, a factor of an error rate of 0 is still 0.
+  public AutoStopListener autoStopListener() {
+    AutoStopListener listener = autoStop("SLA gate");
+    thresholds.forEach((label, labelThresholds) -> labelThresholds.forEach((metric, threshold) -> {
+      if (metric == Metric.ERROR_RATE) {
+        listener.when(liveCondition(label, metric, Math.max(threshold * liveFactor, liveErrorRate)));
+      } else if (metric != Metric.MIN_THROUGHPUT) {
+        listener.when(liveCondition(label, metric, threshold * liveFactor));
+      }
+    }));
+    return listener;
+  }
+
+  private AutoStopCondition liveCondition(String label, Metric metric, double limit) {
+    AutoStopListener.AutoStopConditionBuilder samples = AutoStopCondition.samplesMatching(
+      DEFAULT_LABEL.equals(label) ? defaultLabels() : "^" + Pattern.quote(label) + "$");
+    if (metric == Metric.ERROR_RATE) {
+      return samples.errors().percent().every(liveWindow).greaterThan(limit).holdsFor(liveHoldsFor);
+    }
+    AutoStopListener.TimeMetricConditionBuilder sampleTime = samples.sampleTime();
+    AutoStopListener.AggregatedConditionBuilder<Duration> aggregated = metric == Metric.MAX ? sampleTime.max() : sampleTime.percentile(metric.percentile);
+    return aggregated.every(liveWindow).greaterThan(Duration.ofMillis(Math.round(limit))).holdsFor(liveHoldsFor);
+  }
+
+  private String defaultLabels() {
+    if (transactions.isEmpty()) {
+      return ".*";
+    }
+    return transactions.stream().map(Pattern::quote).collect(Collectors.joining("|", "^(?!(?:", ")$).*"));
+  }
+}
@@ -0,0 +1,138 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+import us.abstracta.jmeter.javadsl.core.engines.AutoStoppedTestException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+public class SlaGateTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void reportsViolationsPerLabel() throws IOException {
+    SlaGate slaGate = slaGate(
+      "sla.default.error.rate=0",
+      "sla.default.p99=1s",
+      "sla.PortalTaskList.p90=200ms");
+
+    TestPlanStats stats = testPlan(
+      threadGroup(1, 5,
+        dummySampler("PortalHome", "ok").responseTime(Duration.ofMillis(100)),
+        dummySampler("PortalTaskList", "ok").responseTime(Duration.ofMillis(500))
+      )
+    ).run();
+
+    List<SlaGate.Violation> violations = slaGate.evaluate(stats);
+    assertThat(violations).extracting(SlaGate.Violation::label, SlaGate.Violation::metric)
+      .containsExactly(tuple("PortalTaskList", SlaGate.Metric.P90));
+    assertThat(SlaGate.table(violations)).contains("PortalTaskList", "<= 200 ms", "500 ms");
+  }
+
+  @Test
+  public void appliesDefaultsToLabelsWithoutOwnThreshold() throws IOException {
+    SlaGate slaGate = slaGate("sla.default.p99=1s", "sla.Login.p99=3s", "sla.Login.min.throughput=5");
+
+    assertThat(slaGate.thresholdsFor("Login"))
+      .containsEntry(SlaGate.Metric.P99, 3000.0)
+      .containsEntry(SlaGate.Metric.MIN_THROUGHPUT, 5.0);
+    assertThat(slaGate.thresholdsFor("Logout")).containsOnlyKeys(SlaGate.Metric.P99);
+  }
+
+  @Test
+  public void abortsRunOnLiveBreach() throws IOException {
+    SlaGate slaGate = slaGate(
+      "sla.PortalHome.p90=100ms",
+      "sla.live.enabled=true",
+      "sla.live.factor=2",
+      "sla.live.window=1s",
+      "sla.live.holds.for=1s");
+
+    assertThatThrownBy(() -> testPlan(
+        threadGroup(1, Duration.ofSeconds(30),
+          dummySampler("PortalHome", "ok").responseTime(Duration.ofMillis(300)).simulateResponseTime(true)
+        ),
+        slaGate.autoStopListener()
+      ).run())
+      .isInstanceOf(AutoStoppedTestException.class);
+  }
+
+  @Test
+  public void keepsRunningOnErrorsBelowLiveErrorFloor() throws IOException {
+    SlaGate slaGate = slaGate(
+      "sla.default.error.rate=0",
+      "sla.live.enabled=true",
+      "sla.live.error.rate=60",
+      "sla.live.window=1s",
+      "sla.live.holds.for=1s");
+
+    TestPlanStats stats = testPlan(
+      threadGroup(1, Duration.ofSeconds(3),
+        dummySampler("PortalHome", "ok").responseTime(Duration.ofMillis(100)).simulateResponseTime(true),
+        dummySampler("PortalTaskList", "ko").successful(false).responseTime(Duration.ofMillis(100)).simulateResponseTime(true)
+      ),
+      slaGate.autoStopListener()
+    ).run();
+
+    assertThat(stats.overall().errorsCount()).isPositive();
+    assertThat(slaGate.evaluate(stats)).extracting(SlaGate.Violation::metric).containsOnly(SlaGate.Metric.ERROR_RATE);
+  }
+
+  @Test
+  public void skipsDefaultsForTransactions() throws IOException {
+    SlaGate slaGate = slaGate("sla.default.p99=100ms", "sla.Navigation.error.rate=0")
+      .transactions(List.of("Navigation"));
+
+    TestPlanStats stats = testPlan(
+      threadGroup(1, 2,
+        transaction("Navigation",
+          dummySampler("PortalHome", "ok").responseTime(Duration.ofMillis(60)).simulateResponseTime(true),
+          dummySampler("PortalTaskList", "ok").responseTime(Duration.ofMillis(60)).simulateResponseTime(true))
+      )
+    ).run();
+
+    assertThat(stats.byLabel("Navigation").sampleTime().max()).isGreaterThan(Duration.ofMillis(100));
+    assertThat(slaGate.thresholdsFor("Navigation")).containsOnlyKeys(SlaGate.Metric.ERROR_RATE);
+    assertThat(slaGate.evaluate(stats)).isEmpty();
+  }
+
+  @Test
+  public void keepsRunningOnSlowTransactions() throws IOException {
+    SlaGate slaGate = slaGate(
+      "sla.default.max=300ms",
+      "sla.live.enabled=true",
+      "sla.live.factor=1",
+      "sla.live.window=1s",
+      "sla.live.holds.for=1s")
+      .transactions(List.of("Navigation"));
+
+    TestPlanStats stats = testPlan(
+      threadGroup(1, Duration.ofSeconds(4),
+        transaction("Navigation",
+          dummySampler("PortalHome", "ok").responseTime(Duration.ofMillis(200)).simulateResponseTime(true),
+          dummySampler("PortalTaskList", "ok").responseTime(Duration.ofMillis(200)).simulateResponseTime(true))
+      ),
+      slaGate.autoStopListener()
+    ).run();
+
+    assertThat(stats.byLabel("Navigation").samplesCount()).isGreaterThan(3);
+  }
+
+  private SlaGate slaGate(String... lines) throws IOException {
+    Path file = Files.write(tempDir.resolve("sla.properties"), List.of(lines));
+    return new SlaGate(new TestProperties(file.toString()));
+  }
+}
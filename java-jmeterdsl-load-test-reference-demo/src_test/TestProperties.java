@@ -0,0 +1,112 @@
+package com.axonivy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Read access to resources/test.properties while the test plan is being built.
+// A system property with the same key (-Dkey=value) overrides the file, so CI jobs can switch settings without editing it.
+public class TestProperties {
+
+  private static final Pattern DURATION = Pattern.compile("(\\d+)\\s*(ms|s|m|h)");
+  // key of a setting or of a commented out example, e.g. "#user.pool.size=10000"
+  private static final Pattern KEY = Pattern.compile("^#?\\s*([\\w.]+)\\s*=");
+
+  private final Properties properties = new Properties();
+  // key prefixes of the settings in the file, e.g. "user.pool." for user.pool.size
+  private final Set<String> prefixes = new HashSet<>();
+
+  public TestProperties(String propertiesFile) {
+    try {
+      String content = Files.readString(Path.of(propertiesFile), StandardCharsets.ISO_8859_1);
+      properties.load(new StringReader(content));
+      content.lines().map(KEY::matcher).filter(Matcher::find).map(matcher -> matcher.group(1))
+        .filter(key -> key.contains("."))
+        .forEach(key -> prefixes.add(key.substring(0, key.lastIndexOf('.') + 1)));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read " + propertiesFile, e);
+    }
+  }
+
+  public static TestProperties load() {
+    return new TestProperties(PortalScenario.PROPERTIES_FILE);
+  }
+
+  // Keys of the file and of all system properties, so prefix scans like think.time.<step> also find -D only settings
+  public Set<String> names() {
+    Set<String> names = new TreeSet<>(properties.stringPropertyNames());
+    names.addAll(System.getProperties().stringPropertyNames());
+    return names;
+  }
+
+  // -D overrides of the settings in the file, also of keys it only mentions in comments like user.pool.size.
+  // JMeter workers read their own copy of the file, so the controller starts them with these.
+  public Map<String, String> overrides() {
+    Map<String, String> overrides = new TreeMap<>();
+    for (String key : System.getProperties().stringPropertyNames()) {
+      if (properties.containsKey(key) || prefixes.stream().anyMatch(key::startsWith)) {
+        overrides.put(key, System.getProperty(key));
+      }
+    }
+    return overrides;
+  }
+
+  public String get(String key) {
+    String value = get(key, null);
+    if (value == null) {
+      throw new IllegalArgumentException("Missing property " + key);
+    }
+    return value;
+  }
+
+  public String get(String key, String defaultValue) {
+    String value = System.getProperty(key, properties.getProperty(key));
+    return value == null || value.isBlank() ? defaultValue : value.trim();
+  }
+
+  public int getInt(String key, int defaultValue) {
+    String value = get(key, null);
+    return value == null ? defaultValue : Integer.parseInt(value);
+  }
+
+  public double getDouble(String key, double defaultValue) {
+    String value = get(key, null);
+    return value == null ? defaultValue : Double.parseDouble(value);
+  }
+
+  public Duration getDuration(String key, Duration defaultValue) {
+    String value = get(key, null);
+    return value == null ? defaultValue : parseDuration(value);
+  }
+
+  // Accepts 500ms, 30s, 2m or 2h
+  public static Duration parseDuration(String value) {
+    Matcher matcher = DURATION.matcher(value.trim());
+    if (!matcher.matches()) {
+      throw new IllegalArgumentException("Invalid duration '" + value + "', expected e.g. 500ms, 30s, 2m or 2h");
+    }
+    long amount = Long.parseLong(matcher.group(1));
+    switch (matcher.group(2)) {
+      case "ms":
+        return Duration.ofMillis(amount);
+      case "s":
+        return Duration.ofSeconds(amount);
+      case "m":
+        return Duration.ofMinutes(amount);
+      default:
+        return Duration.ofHours(amount);
+    }
+  }
+}
@@ -0,0 +1,213 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.preprocessors.DslJsr223PreProcessor;
+import us.abstracta.jmeter.javadsl.core.preprocessors.DslJsr223PreProcessor.PreProcessorScript;
+import us.abstracta.jmeter.javadsl.core.preprocessors.DslJsr223PreProcessor.PreProcessorVars;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+
+import static us.abstracta.jmeter.javadsl.JmeterDsl.jsr223PreProcessor;
+
+// In-memory pool of Portal credentials handed out to virtual users as ${username} / ${password}.
+// Users are loaded or generated once before the run and taken with a lock-free counter, so thousands of
+// threads never wait on a shared CSV file the way csvDataSet does.
+public class UserPool {
+
+  public static final String USERNAME_VAR = "username";
+  public static final String PASSWORD_VAR = "password";
+
+  private static final String PREFIX = "user.pool.";
+  private static final String INDEX_VAR = "userPool.index";
+  private static final String ITERATION_VAR = "userPool.iteration";
+
+  private final String[] usernames;
+  private final String[] passwords;
+  private final Mode mode;
+  private final AtomicLong next = new AtomicLong();
+
+  public enum Mode {
+    // every iteration gets a user nobody had before, threads stop once the pool is exhausted
+    UNIQUE,
+    // like UNIQUE, but starts over with the first user instead of stopping
+    RECYCLE,
+    // every thread keeps the first user it got for all its iterations
+    STICKY
+  }
+
+  public UserPool(List<String> usernames, List<String> passwords, Mode mode) {
+    if (usernames.isEmpty() || usernames.size() != passwords.size()) {
+      throw new IllegalArgumentException("User pool needs the same, non zero number of usernames and passwords");
+    }
+    this.usernames = usernames.toArray(new String[0]);
+    this.passwords = passwords.toArray(new String[0]);
+    this.mode = mode;
+  }
+
+  // CSV with one username,password line per user, no header
+  public static UserPool load(Path csvFile, Mode mode) {
+    List<String> usernames = new ArrayList<>();
+    List<String> passwords = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        int separator = line.indexOf(',');
+        if (separator < 0) {
+          throw new IllegalArgumentException("Expected username,password in " + csvFile + " but got: " + line);
+        }
+        usernames.add(line.substring(0, separator).trim());
+        passwords.add(line.substring(separator + 1).trim());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read user pool " + csvFile, e);
+    }
+    return new UserPool(usernames, passwords, mode);
+  }
+
+  // {0} in the patterns is replaced by the user number, from 1 to size
+  public static UserPool generate(String usernamePattern, String passwordPattern, int size, Mode mode) {
+    List<String> usernames = new ArrayList<>(size);
+    List<String> passwords = new ArrayList<>(size);
+    for (int i = 1; i <= size; i++) {
+      usernames.add(usernamePattern.replace("{0}", String.valueOf(i)));
+      passwords.add(passwordPattern.replace("{0}", String.valueOf(i)));
+    }
+    return new UserPool(usernames, passwords, mode);
+  }
+
+  public static boolean isConfigured(TestProperties properties) {
+    return properties.get(PREFIX + "file", null) != null || properties.get(PREFIX + "generate.username", null) != null;
+  }
+
+  public static UserPool fromProperties(TestProperties properties) {
+    Mode mode = Mode.valueOf(properties.get(PREFIX + "mode", "sticky").toUpperCase(Locale.ROOT));
+    String file = properties.get(PREFIX + "file", null);
+    if (file != null) {
+      return load(Path.of(file), mode);
+    }
+    return generate(properties.get(PREFIX + "generate.username"), properties.get(PREFIX + "generate.password"),
+      properties.getInt(PREFIX + "size", 1000), mode);
+  }
+
+  public int size() {
+    return usernames.length;
+  }
+
+  public Mode mode() {
+    return mode;
+  }
+
+  // Writes the pool as CSV, e.g. to provision generated users on the Portal before the run
+  public void writeCsv(Path csvFile) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+      for (int i = 0; i < usernames.length; i++) {
+        writer.write(usernames[i] + "," + passwords[i]);
+        writer.newLine();
+      }
+    }
+  }
+
+  // Thread group level element: runs before every sampler but only assigns a user once per iteration
+  public DslJsr223PreProcessor preProcessor() {
+    return jsr223PreProcessor("User pool", this::assign);
+  }
+
+  // Same element for plans run on remote JMeter workers, which cannot receive a lambda: each worker JVM builds
+  // its own pool from the properties and only takes its slice of it (see forWorker)
+  public static DslJsr223PreProcessor workerPreProcessor() {
+    return jsr223PreProcessor("User pool", WorkerPool.class);
+  }
+
+  public static class WorkerPool implements PreProcessorScript {
+
+    // Workers stay up across runs, so the pool is built again for every run (told apart by their start time):
+    // a UNIQUE pool starts over with its first user and changed user.pool.* settings apply
+    private static volatile RunPool current;
+
+    private record RunPool(long testStart, UserPool pool) {
+    }
+
+    @Override
+    public void runScript(PreProcessorVars vars) {
+      long testStart = JMeterContextService.getTestStartTime();
+      RunPool run = current;
+      if (run == null || run.testStart() != testStart) {
+        synchronized (WorkerPool.class) {
+          run = current;
+          if (run == null || run.testStart() != testStart) {
+            run = new RunPool(testStart, forWorker(TestProperties.load()));
+            current = run;
+          }
+        }
+      }
+      run.pool().assign(vars);
+    }
+  }
+
+  // The user.pool.* pool split across distributed.worker.count workers, so no two workers share a user
+  static UserPool forWorker(TestProperties properties) {
+    UserPool userPool = fromProperties(properties);
+    int workers = properties.getInt(JmeterWorkers.COUNT_KEY, 1);
+    return workers > 1 ? userPool.slice(properties.getInt(JmeterWorkers.INDEX_KEY, 0), workers) : userPool;
+  }
+
+  // Every count-th user, starting with the one at index
+  public UserPool slice(int index, int count) {
+    List<String> sliceUsernames = new ArrayList<>();
+    List<String> slicePasswords = new ArrayList<>();
+    for (int i = index; i < usernames.length; i += count) {
+      sliceUsernames.add(usernames[i]);
+      slicePasswords.add(passwords[i]);
+    }
+    return new UserPool(sliceUsernames, slicePasswords, mode);
+  }
+
+  private void assign(PreProcessorVars vars) {
+    JMeterVariables variables = vars.vars;
+    Integer iteration = variables.getIteration();
+    if (iteration.equals(variables.getObject(ITERATION_VAR))) {
+      return;
+    }
+    variables.putObject(ITERATION_VAR, iteration);
+    Object assigned = variables.getObject(INDEX_VAR);
+    int index = mode == Mode.STICKY && assigned != null ? (Integer) assigned : take();
+    if (index < 0) {
+      vars.log.info("User pool of {} users exhausted, stopping {}", usernames.length, vars.ctx.getThread().getThreadName());
+      variables.remove(USERNAME_VAR);
+      variables.remove(PASSWORD_VAR);
+      vars.ctx.getThread().stop();
+      return;
+    }
+    variables.putObject(INDEX_VAR, index);
+    variables.put(USERNAME_VAR, usernames[index]);
+    variables.put(PASSWORD_VAR, passwords[index]);
+  }
+
+  // Index of the next user, -1 when a UNIQUE pool is exhausted
+  int take() {
+    long taken = next.getAndIncrement();
+    if (taken < usernames.length) {
+      return (int) taken;
+    }
+    return mode == Mode.UNIQUE ? -1 : (int) (taken % usernames.length);
+  }
+
+  String username(int index) {
+    return usernames[index];
+  }
+}
@@ -0,0 +1,75 @@
+package com.axonivy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+public class UserPoolTest {
+
+  @Test
+  public void takesEveryUserOnceAcrossThreads() throws Exception {
+    UserPool userPool = UserPool.generate("user{0}", "secret{0}", 10_000, UserPool.Mode.UNIQUE);
+    Set<Integer> taken = ConcurrentHashMap.newKeySet();
+    List<Thread> threads = IntStream.range(0, 8)
+      .mapToObj(i -> new Thread(() -> {
+        for (int index = userPool.take(); index >= 0; index = userPool.take()) {
+          taken.add(index);
+        }
+      }))
+      .collect(Collectors.toList());
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(taken).hasSize(10_000);
+    assertThat(userPool.username(9_999)).isEqualTo("user10000");
+  }
+
+  @Test
+  public void recyclesUsersWhenExhausted(@TempDir Path tempDir) throws Exception {
+    Path csv = tempDir.resolve("users.csv");
+    Files.writeString(csv, "alice,a\n\nbob,b\n");
+    UserPool userPool = UserPool.load(csv, UserPool.Mode.RECYCLE);
+    assertThat(userPool.size()).isEqualTo(2);
+    assertThat(IntStream.range(0, 5).map(i -> userPool.take()).boxed()).containsExactly(0, 1, 0, 1, 0);
+  }
+
+  @Test
+  public void assignsUsersPerIterationOrPerThread() throws Exception {
+    assertThat(usernamesByThread(UserPool.Mode.STICKY, 10).values())
+      .allSatisfy(usernames -> assertThat(usernames).hasSize(3).containsOnly(usernames.get(0)));
+
+    Map<String, List<String>> unique = usernamesByThread(UserPool.Mode.UNIQUE, 4);
+    List<String> all = unique.values().stream().flatMap(List::stream).collect(Collectors.toList());
+    // 2 threads x 3 iterations want 6 users, the pool only has 4
+    assertThat(all).hasSize(4).doesNotHaveDuplicates();
+  }
+
+  private Map<String, List<String>> usernamesByThread(UserPool.Mode mode, int size) throws Exception {
+    UserPool userPool = UserPool.generate("user{0}", "secret", size, mode);
+    Map<String, List<String>> usernames = new ConcurrentHashMap<>();
+    testPlan(
+      threadGroup(2, 3,
+        userPool.preProcessor(),
+        dummySampler("first", "OK"),
+        dummySampler("second", "OK")
+          .children(jsr223PostProcessor(vars -> usernames
+            .computeIfAbsent(vars.ctx.getThread().getThreadName(), key -> new CopyOnWriteArrayList<>())
+            .add(vars.vars.get(UserPool.USERNAME_VAR))))
+      )
+    ).run();
+    return usernames;
+  }
+}
@@ -0,0 +1,139 @@
+package com.axonivy;
+
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+import us.abstracta.jmeter.javadsl.core.controllers.DslWeightedSwitchController;
+import us.abstracta.jmeter.javadsl.core.stats.StatsSummary;
+import us.abstracta.jmeter.javadsl.core.threadgroups.BaseThreadGroup.ThreadGroupChild;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static us.abstracta.jmeter.javadsl.JmeterDsl.transaction;
+import static us.abstracta.jmeter.javadsl.JmeterDsl.weightedSwitchController;
+
+// Weighted mix of Portal journeys sharing one thread group, declared in test.properties:
+//   workload.mix=<mix name>
+//   workload.mix.<mix name>.<journey>=<weight>: <step>, <step>, ...
+// Steps are the samplers of PortalScenario.step. Every iteration each virtual user runs one journey, picked by
+// weight. Each journey runs in a transaction named after it, so the stats show journeys next to the single pages.
+public class WorkloadMix {
+
+  public static final String MIX_KEY = "workload.mix";
+
+  private final String name;
+  private final List<Journey> journeys;
+
+  public record Journey(String name, long weight, List<String> steps) {
+
+    public Journey {
+      if (weight <= 0) {
+        throw new IllegalArgumentException("Journey " + name + " needs a positive weight");
+      }
+      if (steps.isEmpty() || !PortalScenario.SESSION_START.equals(steps.get(0))) {
+        throw new IllegalArgumentException("Journey " + name + " has to start with " + PortalScenario.SESSION_START + ", which opens the session");
+      }
+      // fail on unknown steps while building the plan
+      steps.forEach(PortalScenario::step);
+      steps = List.copyOf(steps);
+    }
+  }
+
+  public WorkloadMix(String name, List<Journey> journeys) {
+    if (journeys.isEmpty()) {
+      throw new IllegalArgumentException("Workload mix " + name + " has no journeys");
+    }
+    this.name = name;
+    this.journeys = List.copyOf(journeys);
+  }
+
+  // Mix selected by workload.mix (or -Dworkload.mix=<name>)
+  public static WorkloadMix fromProperties(TestProperties properties) {
+    return fromProperties(properties, properties.get(MIX_KEY));
+  }
+
+  public static WorkloadMix fromProperties(TestProperties properties, String name) {
+    String prefix = MIX_KEY + "." + name + ".";
+    List<Journey> journeys = properties.names().stream()
+      .filter(key -> key.startsWith(prefix))
+      .sorted()
+      .map(key -> parseJourney(key.substring(prefix.length()), properties.get(key)))
+      .toList();
+    return new WorkloadMix(name, journeys);
+  }
+
+  public static Journey parseJourney(String name, String spec) {
+    String[] weightAndSteps = spec.split(":", 2);
+    if (weightAndSteps.length != 2) {
+      throw new IllegalArgumentException("Invalid journey '" + spec + "' of " + name + ", expected <weight>: <step>, <step>, ...");
+    }
+    List<String> steps = Arrays.stream(weightAndSteps[1].split(","))
+      .map(String::trim)
+      .filter(step -> !step.isEmpty())
+      .toList();
+    return new Journey(name, Long.parseLong(weightAndSteps[0].trim()), steps);
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public List<Journey> journeys() {
+    return journeys;
+  }
+
+  // Labels of the journey transactions, the SlaGate keeps the page defaults off them
+  public List<String> transactions() {
+    return journeys.stream().map(Journey::name).toList();
+  }
+
+  // Thread group child running one journey per iteration
+  public DslWeightedSwitchController controller() {
+    DslWeightedSwitchController controller = weightedSwitchController();
+    for (Journey journey : journeys) {
+      controller.child(journey.weight(), transaction(journey.name(), journey.steps().stream()
+        .map(PortalScenario::step)
+        .toArray(ThreadGroupChild[]::new)));
+    }
+    return controller;
+  }
+
+  // Journeys with their target and actual share of the sessions, then the pages by their share of the summed
+  // response time: the page on top puts the most load on the Portal
+  public String report(TestPlanStats stats) {
+    long totalWeight = journeys.stream().mapToLong(Journey::weight).sum();
+    long sessions = journeys.stream().mapToLong(journey -> samples(stats, journey.name())).sum();
+    StringBuilder report = new StringBuilder(String.format("%-24s %8s %8s %8s %10s %10s%n", "Journey", "Target", "Actual", "Count", "Mean ms", "P90 ms"));
+    for (Journey journey : journeys) {
+      long count = samples(stats, journey.name());
+      report.append(String.format("%-24s %7.1f%% %7.1f%% %8d %10d %10d%n", journey.name(),
+        100.0 * journey.weight() / totalWeight, sessions == 0 ? 0 : 100.0 * count / sessions, count,
+        count == 0 ? 0 : stats.byLabel(journey.name()).sampleTime().mean().toMillis(),
+        count == 0 ? 0 : stats.byLabel(journey.name()).sampleTime().perc90().toMillis()));
+    }
+
+    Set<String> journeyNames = journeys.stream().map(Journey::name).collect(Collectors.toSet());
+    List<String> pages = new ArrayList<>(stats.labels());
+    pages.removeAll(journeyNames);
+    pages.sort(Comparator.comparingLong((String page) -> totalMillis(stats.byLabel(page))).reversed());
+    double total = pages.stream().mapToLong(page -> totalMillis(stats.byLabel(page))).sum();
+    report.append(String.format("%n%-24s %8s %10s %10s%n", "Page", "Count", "Total s", "Share"));
+    for (String page : pages) {
+      StatsSummary summary = stats.byLabel(page);
+      report.append(String.format("%-24s %8d %10.1f %9.1f%%%n", page, summary.samplesCount(), totalMillis(summary) / 1000.0,
+        total == 0 ? 0 : 100 * totalMillis(summary) / total));
+    }
+    return report.toString();
+  }
+
+  private static long samples(TestPlanStats stats, String label) {
+    return stats.labels().contains(label) ? stats.byLabel(label).samplesCount() : 0;
+  }
+
+  private static long totalMillis(StatsSummary summary) {
+    return summary.sampleTime().mean().toMillis() * summary.samplesCount();
+  }
+}
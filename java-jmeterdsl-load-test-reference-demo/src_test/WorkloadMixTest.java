@@ -0,0 +1,70 @@
+package com.axonivy;
+
+import com.axonivy.PortalScenario.RunMode;
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+public class WorkloadMixTest {
+
+  @Test
+  public void runsJourneysByWeight(@TempDir Path tempDir) throws Exception {
+    TestProperties properties = mixProperties(tempDir);
+    WorkloadMix mix = WorkloadMix.fromProperties(properties, "test");
+    try (MockPortalServer mockPortal = new MockPortalServer(properties).start()) {
+      UserPool userPool = UserPool.generate("user{0}", "secret{0}", 4, UserPool.Mode.STICKY);
+      TestPlanStats stats = PortalScenario.run(testPlan(
+          PortalScenario.portalMixThreadGroup("mix", LoadProfile.rampTo(4, Duration.ZERO, 20), mix, userPool.preProcessor())),
+        RunMode.EMBEDDED, mockPortal.jmeterProperties());
+
+      assertThat(stats.overall().errorsCount()).isZero();
+      assertThat(mix.transactions()).containsExactly("Cases", "Tasks");
+      SlaGate slaGate = new SlaGate(new TestProperties(Files.writeString(tempDir.resolve("sla.properties"), "sla.default.max=1ms").toString()))
+        .transactions(mix.transactions());
+      assertThat(slaGate.thresholdsFor("Tasks")).isEmpty();
+      assertThat(slaGate.evaluate(stats)).extracting(SlaGate.Violation::label).doesNotContain("Cases", "Tasks");
+      long tasks = stats.byLabel("Tasks").samplesCount();
+      long cases = stats.byLabel("Cases").samplesCount();
+      assertThat(tasks + cases).isEqualTo(80);
+      assertThat(tasks).isGreaterThan(cases);
+      assertThat(stats.byLabel(PortalScenario.SESSION_START).samplesCount()).isEqualTo(80);
+      assertThat(stats.byLabel("PortalTaskList").samplesCount()).isEqualTo(tasks);
+      assertThat(stats.byLabel("PortalCaseList").samplesCount()).isEqualTo(cases);
+      assertThat(mockPortal.stats().viewStateErrors()).isZero();
+
+      String report = mix.report(stats);
+      assertThat(report).contains("Tasks", "Cases", "PortalTaskList", "Login");
+      assertThat(report.lines().filter(line -> line.startsWith("PortalStart"))).hasSize(1);
+    }
+  }
+
+  @Test
+  public void rejectsInvalidJourneys() {
+    assertThatThrownBy(() -> WorkloadMix.parseJourney("Broken", "10: PortalStart, Login, PortalReports"))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("PortalReports");
+    assertThatThrownBy(() -> WorkloadMix.parseJourney("Anonymous", "10: Login, PortalHome"))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining(PortalScenario.SESSION_START);
+    assertThatThrownBy(() -> new WorkloadMix("empty", List.of()))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static TestProperties mixProperties(Path tempDir) throws IOException {
+    return MockPortalServerTest.mockProperties(tempDir,
+      "workload.mix.test.Tasks=3: PortalStart, Login, PortalHome, NavigateToTaskList, PortalTaskList, Logout",
+      "workload.mix.test.Cases=1: PortalStart, Login, PortalHome, NavigateToCaseList, PortalCaseList, Logout",
+      "workload.mix.other.Processes=1: PortalStart, Login");
+  }
+}